@@ -1,8 +1,12 @@
 package ua.edu.sumdu.j2se.kush.tasks;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -10,6 +14,12 @@ import java.util.stream.Stream;
  *
  * @see ArrayTaskList
  * @see LinkedTaskList
+ * @see IndexedTaskList
+ * @see ColumnarTaskList
+ * @see OffHeapTaskList
+ * @see UnrolledTaskList
+ * @see ConcurrentTaskList
+ * @see PersistentTaskList
  * @see ListTypes
  */
 public abstract class AbstractTaskList implements Iterable<Task> {
@@ -19,6 +29,27 @@ public abstract class AbstractTaskList implements Iterable<Task> {
      */
     protected int size;
 
+    /**
+     * The pool of canonical values for added tasks, or null.
+     */
+    private TaskInterner interner;
+
+    /**
+     * The sum of the hash codes of the counted frozen tasks of this list.
+     */
+    private int frozenHash;
+
+    /**
+     * The number of counted frozen tasks of this list (see
+     * {@link Task#listed()}).
+     */
+    private int frozenCount;
+
+    /**
+     * The number of changes of this list.
+     */
+    private long version;
+
     /**
      * Returns the type of this list.
      *
@@ -35,6 +66,103 @@ public abstract class AbstractTaskList implements Iterable<Task> {
         return size;
     }
 
+    /**
+     * Sets the pool of canonical titles and times for the tasks added to
+     * this list from now on.
+     *
+     * @param interner the pool or null to keep the tasks as they are.
+     */
+    public void setInterner(TaskInterner interner) {
+        this.interner = interner;
+    }
+
+    /**
+     * Returns the pool of canonical titles and times of this list.
+     *
+     * @return the pool or null.
+     */
+    public TaskInterner getInterner() {
+        return interner;
+    }
+
+    /**
+     * Replaces the title and the times of a task being added with their
+     * canonical instances if this list has an interner.
+     *
+     * @param task the task being added.
+     * @return the same task.
+     */
+    protected Task intern(Task task) {
+        return interner == null ? task : interner.intern(task);
+    }
+
+    /**
+     * Returns the modification version of this list. The version changes
+     * every time a task is added to or removed from this list, so two equal
+     * versions of the same list mean that the list holds the same tasks.
+     * Changes of the tasks themselves do not change the version.
+     *
+     * @return the version of this list.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Changes the version of this list after a task has been added or
+     * removed. {@link #taskAdded(Task)} and {@link #taskRemoved(Task)} call
+     * it themselves.
+     */
+    protected void modified() {
+        version++;
+    }
+
+    /**
+     * Counts a task that is being added to this list in the list hash code.
+     *
+     * @param task the added task.
+     */
+    protected void taskAdded(Task task) {
+        modified();
+        if (task.listed()) {
+            frozenHash += task.hashCode();
+            frozenCount++;
+        }
+    }
+
+    /**
+     * Excludes a task that has been removed from this list from the list
+     * hash code.
+     *
+     * @param task the removed task.
+     */
+    protected void taskRemoved(Task task) {
+        modified();
+        if (task.isCounted()) {
+            frozenHash -= task.hashCode();
+            frozenCount--;
+        }
+    }
+
+    /**
+     * Forgets the counted tasks of a clone of this list that is going to be
+     * filled again by {@link #add(Task)}.
+     */
+    protected void clearCounted() {
+        frozenHash = 0;
+        frozenCount = 0;
+    }
+
+    /**
+     * Returns true if every task of this list is frozen and counted in
+     * {@link #frozenHash}.
+     *
+     * @return true if the hash code of this list is known without a scan.
+     */
+    private boolean isHashKnown() {
+        return frozenCount == size();
+    }
+
     /**
      * Returns a task at specified position of this list.
      *
@@ -59,29 +187,108 @@ public abstract class AbstractTaskList implements Iterable<Task> {
      */
     public abstract boolean remove(Task task);
 
+    /**
+     * Appends all tasks of the specified collection to this list.
+     *
+     * @param tasks tasks to be added to this list.
+     */
+    public void addAll(Iterable<Task> tasks) {
+        if (tasks == this) {
+            tasks = getStream().collect(Collectors.toList());
+        }
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    /**
+     * Removes all tasks of this list that satisfy the given predicate.
+     *
+     * @param filter a predicate which returns true for tasks to be removed.
+     * @return true if any tasks were removed.
+     */
+    public boolean removeIf(Predicate<? super Task> filter) {
+        Objects.requireNonNull(filter);
+        boolean removed = false;
+        for (Iterator<Task> itr = iterator(); itr.hasNext(); ) {
+            if (filter.test(itr.next())) {
+                itr.remove();
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Removes from this list all tasks that are equal to any task of the
+     * specified collection.
+     *
+     * @param tasks tasks to be removed from this list.
+     * @return true if any tasks were removed.
+     */
+    public boolean removeAll(Iterable<Task> tasks) {
+        Set<Task> set = toSet(tasks);
+        return removeIf(set::contains);
+    }
+
+    /**
+     * Retains only the tasks of this list that are equal to a task of the
+     * specified collection.
+     *
+     * @param tasks tasks to be retained in this list.
+     * @return true if any tasks were removed.
+     */
+    public boolean retainAll(Iterable<Task> tasks) {
+        Set<Task> set = toSet(tasks);
+        return removeIf(task -> !set.contains(task));
+    }
+
+    private static Set<Task> toSet(Iterable<Task> tasks) {
+        Set<Task> set = new HashSet<>();
+        for (Task task : tasks) {
+            set.add(task);
+        }
+        return set;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof AbstractTaskList)) return false;
         AbstractTaskList obj = (AbstractTaskList) o;
-        if (this.size != obj.size) return false;
+        if (this.size() != obj.size()) return false;
+        if (isHashKnown() && obj.isHashKnown()
+                && frozenHash != obj.frozenHash) return false;
 
         Iterator<Task> itr1 = iterator();
         Iterator<Task> itr2 = obj.iterator();
-        while (itr1.hasNext()) {
+        while (itr1.hasNext() && itr2.hasNext()) {
             if (!Objects.equals(itr1.next(), itr2.next())) return false;
         }
-        return true;
+        return !itr1.hasNext() && !itr2.hasNext();
     }
 
+    /**
+     * Returns the hash code of this list. It does not depend on the order of
+     * the tasks, so it is kept up to date on every add and remove. If all the
+     * tasks were frozen (see {@link Task#freeze()}) before they were added
+     * to any list, the hash code is returned without a scan of this list,
+     * otherwise every task is hashed.
+     *
+     * @return the hash code of this list.
+     */
     @Override
     public int hashCode() {
-        int result = 1;
-        result = 31 * result + size;
-        for (Task task : this) {
-            result = 31 * result + (task == null ? 0 : task.hashCode());
+        int sum;
+        if (isHashKnown()) {
+            sum = frozenHash;
+        } else {
+            sum = 0;
+            for (Task task : this) {
+                sum += task == null ? 0 : task.hashCode();
+            }
         }
-        return result;
+        return 31 * size() + sum;
     }
 
     public abstract Stream<Task> getStream();
@@ -1,12 +1,27 @@
 package ua.edu.sumdu.j2se.kush.tasks;
 
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A list of tasks based on an array.
+ * <p>The list can keep an equality index (see {@link #setIndexed(boolean)})
+ * that finds the position of a task by its hash code, so
+ * {@link #remove(Task)} and {@link #indexOf(Task)} do not have to scan the
+ * array. While the index is on, removed tasks leave empty slots in the
+ * array that are squeezed out in one pass before the next positional
+ * access or when they make up a third of the array.</p>
  */
 public class ArrayTaskList extends AbstractTaskList implements Cloneable {
 
@@ -15,6 +30,24 @@ public class ArrayTaskList extends AbstractTaskList implements Cloneable {
      */
     private Task[] list;
 
+    /**
+     * The number of used slots of the {@link #list}, including the empty
+     * slots of removed tasks.
+     */
+    private int end;
+
+    /**
+     * The first slot of every distinct task, or null if the list is not
+     * indexed.
+     */
+    private Map<Task, Integer> index;
+
+    /**
+     * The next slot with a task equal to the task in the slot, -1 if there
+     * is no such slot.
+     */
+    private int[] nextSlot;
+
     /**
      * This constructor is to create an empty list.
      */
@@ -43,20 +76,55 @@ public class ArrayTaskList extends AbstractTaskList implements Cloneable {
         return ListTypes.types.ARRAY;
     }
 
+    /**
+     * Turns the equality index of this list on or off.
+     * <p>The index relies on {@link Task#hashCode()}, so the tasks of an
+     * indexed list must not be changed while they are in the list.</p>
+     *
+     * @param indexed true to keep the index.
+     */
+    public void setIndexed(boolean indexed) {
+        compact();
+        if (!indexed) {
+            index = null;
+            nextSlot = null;
+        } else if (index == null) {
+            index = new HashMap<>();
+            nextSlot = new int[list.length];
+            rebuildIndex();
+        }
+    }
+
+    /**
+     * Returns true if this list keeps the equality index.
+     *
+     * @return true if this list is indexed.
+     */
+    public boolean isIndexed() {
+        return index != null;
+    }
+
     @Override
     public Task getTask(int index) {
         if (index < 0 || index >= size) {
             throw new IndexOutOfBoundsException("Index: " + index
                     + ", size: " + size);
         }
+        compact();
         return list[index];
     }
 
     @Override
     public void add(Task task) {
         if (task != null) {
-            ensureCapacity(size + 1);
-            list[size++] = task;
+            ensureCapacity(end + 1);
+            list[end] = intern(task);
+            if (index != null) {
+                link(task, end);
+            }
+            taskAdded(task);
+            end++;
+            size++;
         }
     }
 
@@ -74,10 +142,13 @@ public class ArrayTaskList extends AbstractTaskList implements Cloneable {
     private void grow(int minCapacity) {
         int newCapacity = minCapacity + (minCapacity / 2);
         Task[] tmp = new Task[newCapacity];
-        if (size > 0) {
-            System.arraycopy(list, 0, tmp, 0, size);
+        if (end > 0) {
+            System.arraycopy(list, 0, tmp, 0, end);
         }
         list = tmp;
+        if (nextSlot != null) {
+            nextSlot = Arrays.copyOf(nextSlot, newCapacity);
+        }
     }
 
     /**
@@ -87,32 +158,196 @@ public class ArrayTaskList extends AbstractTaskList implements Cloneable {
         Task[] tmp = new Task[size];
         System.arraycopy(list, 0, tmp, 0, size);
         list = tmp;
+        if (nextSlot != null) {
+            nextSlot = Arrays.copyOf(nextSlot, size);
+        }
     }
 
     @Override
     public boolean remove(Task task) {
-        int index = indexOf(task);
+        if (index != null) {
+            Integer slot = task == null ? null : index.get(task);
+            if (slot == null) {
+                return false;
+            }
+            clearSlot(slot);
+            if ((end - size) * 3 > end) {
+                compact();
+            }
+            return true;
+        }
 
-        if (index < 0) {
+        int i = indexOf(task);
+        if (i < 0) {
             return false;
         }
+        removeAt(i);
+        return true;
+    }
 
-        int numberOfTasksToShift = size - index - 1;
+    /**
+     * Appends all tasks of the specified collection to this list. The array
+     * grows at most once if the number of tasks is known in advance.
+     *
+     * @param tasks tasks to be added to this list.
+     */
+    @Override
+    public void addAll(Iterable<Task> tasks) {
+        if (tasks == this) {
+            compact();
+            tasks = Arrays.asList(Arrays.copyOf(list, size));
+        }
+        if (tasks instanceof Collection) {
+            ensureCapacity(end + ((Collection<?>) tasks).size());
+        } else if (tasks instanceof AbstractTaskList) {
+            ensureCapacity(end + ((AbstractTaskList) tasks).size());
+        }
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    /**
+     * Removes all tasks of this list that satisfy the given predicate in one
+     * pass over the array, the array is reallocated at most once.
+     * <p>The predicate is tested on every task before the list is changed,
+     * so the list stays intact if the predicate throws.</p>
+     *
+     * @param filter a predicate which returns true for tasks to be removed.
+     * @return true if any tasks were removed.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Task> filter) {
+        Objects.requireNonNull(filter);
+        BitSet removed = new BitSet(end);
+        for (int i = 0; i < end; i++) {
+            if (list[i] != null && filter.test(list[i])) {
+                removed.set(i);
+            }
+        }
+        if (removed.isEmpty() && size == end) {
+            return false;
+        }
+        int j = 0;
+        for (int i = 0; i < end; i++) {
+            Task task = list[i];
+            if (task != null) {
+                if (removed.get(i)) {
+                    taskRemoved(task);
+                } else {
+                    list[j++] = task;
+                }
+            }
+        }
+        Arrays.fill(list, j, end, null);
+        end = size = j;
+        if (list.length - size > (size >> 1)) {
+            trimToSize();
+        }
+        if (index != null) {
+            rebuildIndex();
+        }
+        return !removed.isEmpty();
+    }
+
+    /**
+     * Removes the task at specified position by shifting the tail of the
+     * {@link #list}. Used only if the list is not indexed.
+     *
+     * @param i position of the task to remove.
+     */
+    private void removeAt(int i) {
+        taskRemoved(list[i]);
+        int numberOfTasksToShift = size - i - 1;
 
         if (numberOfTasksToShift > 0) {
-            System.arraycopy(list, index + 1, list,
-                    index, numberOfTasksToShift);
+            System.arraycopy(list, i + 1, list,
+                    i, numberOfTasksToShift);
         }
 
         list[--size] = null;
+        end = size;
 
         // Make sure the taskList array is not too large
         // after deleting the task.
         if (list.length - size > (size >> 1)) {
             trimToSize();
         }
+    }
 
-        return true;
+    /**
+     * Empties the slot of an indexed list and removes it from the index.
+     *
+     * @param slot the slot of the removed task.
+     */
+    private void clearSlot(int slot) {
+        Task task = list[slot];
+        int head = index.get(task);
+        if (head == slot) {
+            if (nextSlot[slot] < 0) {
+                index.remove(task);
+            } else {
+                index.put(task, nextSlot[slot]);
+            }
+        } else {
+            int prev = head;
+            while (nextSlot[prev] != slot) {
+                prev = nextSlot[prev];
+            }
+            nextSlot[prev] = nextSlot[slot];
+        }
+        list[slot] = null;
+        size--;
+        taskRemoved(task);
+    }
+
+    /**
+     * Appends the slot to the chain of slots of equal tasks.
+     *
+     * @param task the task in the slot.
+     * @param slot the slot.
+     */
+    private void link(Task task, int slot) {
+        nextSlot[slot] = -1;
+        Integer head = index.putIfAbsent(task, slot);
+        if (head != null) {
+            int last = head;
+            while (nextSlot[last] >= 0) {
+                last = nextSlot[last];
+            }
+            nextSlot[last] = slot;
+        }
+    }
+
+    /**
+     * Moves the tasks over the empty slots of removed tasks in one pass and
+     * rebuilds the index.
+     */
+    private void compact() {
+        if (end == size) {
+            return;
+        }
+        int j = 0;
+        for (int i = 0; i < end; i++) {
+            if (list[i] != null) {
+                list[j++] = list[i];
+            }
+        }
+        Arrays.fill(list, j, end, null);
+        end = j;
+        if (list.length - size > (size >> 1)) {
+            trimToSize();
+        }
+        if (index != null) {
+            rebuildIndex();
+        }
+    }
+
+    private void rebuildIndex() {
+        index.clear();
+        for (int i = 0; i < end; i++) {
+            link(list[i], i);
+        }
     }
 
     /**
@@ -127,6 +362,12 @@ public class ArrayTaskList extends AbstractTaskList implements Cloneable {
             return -1;
         }
 
+        if (index != null) {
+            compact();
+            Integer slot = index.get(task);
+            return slot == null ? -1 : slot;
+        }
+
         for (int i = 0; i < size; i++) {
             if (task.equals(list[i])) {
                 return i;
@@ -137,24 +378,27 @@ public class ArrayTaskList extends AbstractTaskList implements Cloneable {
 
     @Override
     public Iterator<Task> iterator() {
+        compact();
         return new Iterator<Task>() {
             private int cursor;
             private int lastRet = -1;
 
             @Override
             public boolean hasNext() {
-                return cursor != size;
+                Task[] tasks = ArrayTaskList.this.list;
+                while (cursor < end && tasks[cursor] == null) {
+                    cursor++;
+                }
+                return cursor < end;
             }
 
             @Override
             public Task next() {
-                int i = cursor;
-                if (cursor >= size) {
+                if (!hasNext()) {
                     throw new NoSuchElementException();
                 }
-                Task[] tasks = ArrayTaskList.this.list;
-                cursor = i + 1;
-                return tasks[lastRet = i];
+                lastRet = cursor++;
+                return ArrayTaskList.this.list[lastRet];
             }
 
             @Override
@@ -164,8 +408,13 @@ public class ArrayTaskList extends AbstractTaskList implements Cloneable {
                             "Method remove() should be called after next()");
                 }
 
-                ArrayTaskList.this.remove(ArrayTaskList.this.list[lastRet]);
-                cursor = lastRet;
+                if (index != null) {
+                    // Keep the positions, the slot is squeezed out later.
+                    clearSlot(lastRet);
+                } else {
+                    removeAt(lastRet);
+                    cursor = lastRet;
+                }
                 lastRet = -1;
             }
         };
@@ -177,18 +426,37 @@ public class ArrayTaskList extends AbstractTaskList implements Cloneable {
             ArrayTaskList clone = (ArrayTaskList) super.clone();
             clone.list = new Task[size];
             clone.size = 0;
+            clone.clearCounted();
+            clone.end = 0;
+            clone.index = null;
+            clone.nextSlot = null;
             for (Task task : this) {
                 clone.add(task.clone());
             }
+            clone.setIndexed(isIndexed());
             return clone;
         } catch (CloneNotSupportedException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Returns a spliterator over the used part of the {@link #list}. It
+     * reports its exact size and splits in halves, so parallel streams can
+     * divide the work evenly.
+     *
+     * @return a spliterator over the tasks of this list.
+     */
+    @Override
+    public Spliterator<Task> spliterator() {
+        compact();
+        return Spliterators.spliterator(list, 0, size,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
     @Override
     public Stream<Task> getStream() {
-        return Stream.of(list).filter(Objects::nonNull);
+        return StreamSupport.stream(spliterator(), false);
     }
 
     @Override
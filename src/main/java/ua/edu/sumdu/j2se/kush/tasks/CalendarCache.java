@@ -0,0 +1,343 @@
+package ua.edu.sumdu.j2se.kush.tasks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * A cache of the results of {@link Tasks#incoming(Iterable, LocalDateTime,
+ * LocalDateTime)} and {@link Tasks#calendar(Iterable, LocalDateTime,
+ * LocalDateTime)} for task lists.
+ * <p>A result is kept for the list (by identity), the period and the
+ * {@link AbstractTaskList#getVersion() version} of the list it was built
+ * for. When the list has been changed since, the result is built again and
+ * replaces the old one. The version does not see the changes of tasks
+ * themselves: if the tasks of a list are changed in place, the list must be
+ * {@link #invalidate(AbstractTaskList) invalidated}, unless the tasks are
+ * frozen (see {@link Task#freeze()}) or the list keeps copies of the tasks,
+ * as {@link ColumnarTaskList} and {@link OffHeapTaskList} do.</p>
+ * <p>The least recently used results are evicted when the cache holds more
+ * than the maximum number of results or the estimated size of the results
+ * is more than the maximum number of bytes. A result that is larger than
+ * the maximum alone is returned but not kept.</p>
+ * <p>The returned results are unmodifiable and shared by all the callers.
+ * The cache is thread-safe; results are built outside the lock, so two
+ * threads that miss at the same time may both build the result.</p>
+ */
+public class CalendarCache {
+
+    /**
+     * The estimated size of a cached result without its content.
+     */
+    static final long ENTRY_BYTES = 160;
+
+    /**
+     * The estimated size of a task reference in a result.
+     */
+    static final long TASK_BYTES = 40;
+
+    /**
+     * The estimated size of a time of a calendar: a tree map entry, the time
+     * and its set.
+     */
+    static final long TIME_BYTES = 200;
+
+    /**
+     * The maximum number of cached results.
+     */
+    private final int maxEntries;
+
+    /**
+     * The maximum estimated size of cached results in bytes.
+     */
+    private final long maxBytes;
+
+    /**
+     * The cached results in order of access, the least recently used first.
+     */
+    private final LinkedHashMap<Key, Entry> entries =
+            new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The estimated size of cached results in bytes.
+     */
+    private long bytes;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * This constructor creates an empty cache with the specified bounds.
+     *
+     * @param maxEntries the maximum number of cached results.
+     * @param maxBytes   the maximum estimated size of cached results.
+     */
+    public CalendarCache(int maxEntries, long maxBytes) {
+        if (maxEntries <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("The maximum number of "
+                    + "results and the maximum size must be > 0.");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the tasks of the list that run during the period, the same as
+     * {@link Tasks#incoming(Iterable, LocalDateTime, LocalDateTime)} does.
+     *
+     * @param tasks the list of tasks.
+     * @param start the start time of the period.
+     * @param end   the end time of the period.
+     * @return an unmodifiable list of the tasks.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Task> incoming(AbstractTaskList tasks, LocalDateTime start,
+                               LocalDateTime end) {
+        Key key = new Key(tasks, start, end, false);
+        long version = tasks.getVersion();
+        Object cached = lookup(key, version);
+        if (cached != null) {
+            return (List<Task>) cached;
+        }
+        List<Task> result = new ArrayList<>();
+        for (Task task : Tasks.incoming(tasks, start, end)) {
+            result.add(task);
+        }
+        result = Collections.unmodifiableList(result);
+        store(key, version, result,
+                ENTRY_BYTES + result.size() * TASK_BYTES);
+        return result;
+    }
+
+    /**
+     * Returns the calendar of the list during the period, the same as
+     * {@link Tasks#calendar(Iterable, LocalDateTime, LocalDateTime)} does.
+     *
+     * @param tasks the list of tasks.
+     * @param start the start time of the period.
+     * @param end   the end time of the period.
+     * @return an unmodifiable calendar with unmodifiable sets.
+     */
+    @SuppressWarnings("unchecked")
+    public SortedMap<LocalDateTime, Set<Task>> calendar(
+            AbstractTaskList tasks, LocalDateTime start, LocalDateTime end) {
+        Key key = new Key(tasks, start, end, true);
+        long version = tasks.getVersion();
+        Object cached = lookup(key, version);
+        if (cached != null) {
+            return (SortedMap<LocalDateTime, Set<Task>>) cached;
+        }
+        SortedMap<LocalDateTime, Set<Task>> result =
+                Tasks.calendar(tasks, start, end);
+        long size = ENTRY_BYTES;
+        for (Map.Entry<LocalDateTime, Set<Task>> e : result.entrySet()) {
+            size += TIME_BYTES + e.getValue().size() * TASK_BYTES;
+            e.setValue(Collections.unmodifiableSet(e.getValue()));
+        }
+        result = Collections.unmodifiableSortedMap(result);
+        store(key, version, result, size);
+        return result;
+    }
+
+    /**
+     * Removes every cached result of the list.
+     *
+     * @param tasks the list of tasks.
+     */
+    public synchronized void invalidate(AbstractTaskList tasks) {
+        for (Iterator<Map.Entry<Key, Entry>> itr =
+             entries.entrySet().iterator(); itr.hasNext(); ) {
+            Map.Entry<Key, Entry> e = itr.next();
+            if (e.getKey().tasks == tasks) {
+                bytes -= e.getValue().bytes;
+                itr.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes every cached result.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Returns the number of cached results.
+     *
+     * @return the number of cached results.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the estimated size of cached results in bytes.
+     *
+     * @return the estimated size.
+     */
+    public synchronized long estimatedBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the number of requests answered by a cached result.
+     *
+     * @return the number of hits.
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of requests that built a result, including the
+     * requests whose result was out of date.
+     *
+     * @return the number of misses.
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of results evicted to keep the cache in bounds.
+     *
+     * @return the number of evictions.
+     */
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the share of requests answered by a cached result.
+     *
+     * @return the hit rate from 0 to 1, 0 if there were no requests.
+     */
+    public synchronized double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CalendarCache{"
+                + "size=" + entries.size()
+                + ", bytes=" + bytes
+                + ", hits=" + hits
+                + ", misses=" + misses
+                + ", evictions=" + evictions
+                + '}';
+    }
+
+    /**
+     * Returns the cached result for the key if it was built for the
+     * version, otherwise counts a miss.
+     *
+     * @param key     the key.
+     * @param version the current version of the list.
+     * @return the result or null.
+     */
+    private synchronized Object lookup(Key key, long version) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version == version) {
+            hits++;
+            return entry.value;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Caches a result and evicts the least recently used results while the
+     * cache is out of bounds.
+     *
+     * @param key     the key.
+     * @param version the version of the list the result was built for.
+     * @param value   the result.
+     * @param size    the estimated size of the result.
+     */
+    private synchronized void store(Key key, long version, Object value,
+                                    long size) {
+        Entry old = entries.remove(key);
+        if (old != null) {
+            bytes -= old.bytes;
+        }
+        if (size > maxBytes) {
+            return;
+        }
+        entries.put(key, new Entry(version, value, size));
+        bytes += size;
+        Iterator<Entry> itr = entries.values().iterator();
+        while (entries.size() > maxEntries || bytes > maxBytes) {
+            bytes -= itr.next().bytes;
+            itr.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * A request: the list, the period and the kind of the result.
+     */
+    private static class Key {
+        private final AbstractTaskList tasks;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final boolean calendar;
+
+        Key(AbstractTaskList tasks, LocalDateTime start, LocalDateTime end,
+            boolean calendar) {
+            if (tasks == null) {
+                throw new IllegalArgumentException("The list of tasks "
+                        + "must be non-null.");
+            }
+            this.tasks = tasks;
+            this.start = start;
+            this.end = end;
+            this.calendar = calendar;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return tasks == key.tasks
+                    && calendar == key.calendar
+                    && Objects.equals(start, key.start)
+                    && Objects.equals(end, key.end);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(tasks);
+            result = 31 * result + Objects.hashCode(start);
+            result = 31 * result + Objects.hashCode(end);
+            result = 31 * result + Boolean.hashCode(calendar);
+            return result;
+        }
+    }
+
+    /**
+     * A cached result.
+     */
+    private static class Entry {
+        private final long version;
+        private final Object value;
+        private final long bytes;
+
+        Entry(long version, Object value, long bytes) {
+            this.version = version;
+            this.value = value;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package ua.edu.sumdu.j2se.kush.tasks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * A page of a schedule of tasks with the cursor of the next page.
+ *
+ * @see Tasks#calendarPage(Iterable, LocalDateTime, LocalDateTime, int,
+ * String)
+ */
+public class CalendarPage {
+
+    /**
+     * The prefix of the cursors of this version of the format.
+     */
+    private static final String FORMAT = "c1:";
+
+    private final SortedMap<LocalDateTime, Set<Task>> entries;
+    private final String cursor;
+
+    /**
+     * This constructor defines a page.
+     *
+     * @param entries the times of the page with their tasks.
+     * @param last    the last time of the page if there are more pages,
+     *                otherwise null.
+     */
+    CalendarPage(SortedMap<LocalDateTime, Set<Task>> entries,
+                 LocalDateTime last) {
+        this.entries = Collections.unmodifiableSortedMap(entries);
+        this.cursor = last == null ? null : encode(last);
+    }
+
+    /**
+     * Returns the times of this page with their tasks.
+     *
+     * @return a read-only part of the schedule with read-only sets.
+     */
+    public SortedMap<LocalDateTime, Set<Task>> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Returns the cursor to pass for the next page. The cursor is an opaque
+     * string that stays valid as long as the tasks do not change.
+     *
+     * @return the cursor or null if this page is the last one.
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Returns true if there are more pages after this one.
+     *
+     * @return true if there are more pages.
+     */
+    public boolean hasMore() {
+        return cursor != null;
+    }
+
+    /**
+     * Returns the cursor that resumes after the time.
+     *
+     * @param last the last time of a page.
+     * @return the cursor.
+     */
+    static String encode(LocalDateTime last) {
+        String state = FORMAT + last.toEpochSecond(ZoneOffset.UTC) + "."
+                + last.getNano();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(state.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the time after which the cursor resumes.
+     *
+     * @param cursor the cursor of a page.
+     * @return the last time of the page.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    static LocalDateTime decode(String cursor) {
+        try {
+            String state = new String(Base64.getUrlDecoder().decode(cursor),
+                    StandardCharsets.UTF_8);
+            if (!state.startsWith(FORMAT)) {
+                throw new IllegalArgumentException("The cursor is invalid.");
+            }
+            String[] parts = state.substring(FORMAT.length()).split("\\.");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("The cursor is invalid.");
+            }
+            return LocalDateTime.ofEpochSecond(Long.parseLong(parts[0]),
+                    Integer.parseInt(parts[1]), ZoneOffset.UTC);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("The cursor is invalid.", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CalendarPage{"
+                + "entries=" + entries
+                + ", cursor=" + cursor
+                + '}';
+    }
+}
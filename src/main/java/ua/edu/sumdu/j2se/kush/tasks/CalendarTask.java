@@ -0,0 +1,112 @@
+package ua.edu.sumdu.j2se.kush.tasks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.Spliterator;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A fork-join task that builds the calendar of a part of a task list.
+ * <p>The task splits its spliterator while the part is larger than
+ * {@link #LEAF_SIZE} tasks and forks a subtask for every split-off prefix.
+ * Each leaf builds a partial calendar of its tasks with
+ * {@link Tasks#calendar(Iterable, LocalDateTime, LocalDateTime)}, and the
+ * partial calendars are merged on the way back.</p>
+ *
+ * @see Tasks#parallelCalendar(Iterable, LocalDateTime, LocalDateTime)
+ */
+class CalendarTask extends RecursiveTask<SortedMap<LocalDateTime, Set<Task>>> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The number of tasks a leaf handles without splitting.
+     */
+    static final int LEAF_SIZE = 512;
+
+    /**
+     * The tasks of this part.
+     */
+    private final Spliterator<Task> spliterator;
+
+    /**
+     * The start time of the period.
+     */
+    private final LocalDateTime start;
+
+    /**
+     * The end time of the period.
+     */
+    private final LocalDateTime end;
+
+    /**
+     * This constructor defines the part of the calendar to build.
+     *
+     * @param spliterator the tasks of the part.
+     * @param start       the start time of the period.
+     * @param end         the end time of the period.
+     */
+    CalendarTask(Spliterator<Task> spliterator, LocalDateTime start,
+                 LocalDateTime end) {
+        this.spliterator = spliterator;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    protected SortedMap<LocalDateTime, Set<Task>> compute() {
+        Deque<CalendarTask> forked = new ArrayDeque<>();
+        while (spliterator.estimateSize() > LEAF_SIZE) {
+            Spliterator<Task> prefix = spliterator.trySplit();
+            if (prefix == null) {
+                break;
+            }
+            CalendarTask subtask = new CalendarTask(prefix, start, end);
+            subtask.fork();
+            forked.push(subtask);
+        }
+
+        List<Task> tasks = new ArrayList<>();
+        spliterator.forEachRemaining(tasks::add);
+        SortedMap<LocalDateTime, Set<Task>> result =
+                Tasks.calendar(tasks, start, end);
+
+        while (!forked.isEmpty()) {
+            result = merge(result, forked.pop().join());
+        }
+        return result;
+    }
+
+    /**
+     * Merges two partial calendars: the entries of the smaller calendar are
+     * added to the larger one.
+     *
+     * @param a a partial calendar.
+     * @param b another partial calendar.
+     * @return the merged calendar.
+     */
+    static SortedMap<LocalDateTime, Set<Task>> merge(
+            SortedMap<LocalDateTime, Set<Task>> a,
+            SortedMap<LocalDateTime, Set<Task>> b) {
+        if (a.size() < b.size()) {
+            SortedMap<LocalDateTime, Set<Task>> tmp = a;
+            a = b;
+            b = tmp;
+        }
+        for (Map.Entry<LocalDateTime, Set<Task>> entry : b.entrySet()) {
+            Set<Task> set = a.get(entry.getKey());
+            if (set == null) {
+                a.put(entry.getKey(), entry.getValue());
+            } else {
+                set.addAll(entry.getValue());
+            }
+        }
+        return a;
+    }
+}
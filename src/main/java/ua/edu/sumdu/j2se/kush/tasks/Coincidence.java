@@ -0,0 +1,94 @@
+package ua.edu.sumdu.j2se.kush.tasks;
+
+import java.time.LocalDateTime;
+
+/**
+ * The common runs of two tasks during a period. The common runs of two
+ * tasks are the interval apart, so they are described by the first of
+ * them, the interval and their number.
+ *
+ * @see Tasks#coincidences(Iterable, LocalDateTime, LocalDateTime)
+ */
+public class Coincidence {
+    private final Task first;
+    private final Task second;
+    private final LocalDateTime time;
+    private final long interval;
+    private final long count;
+
+    /**
+     * This constructor defines the common runs of two tasks.
+     *
+     * @param first    a task.
+     * @param second   another task.
+     * @param time     the time of the first common run.
+     * @param interval the distance between common runs in seconds.
+     * @param count    the number of common runs.
+     */
+    Coincidence(Task first, Task second, LocalDateTime time, long interval,
+                long count) {
+        this.first = first;
+        this.second = second;
+        this.time = time;
+        this.interval = interval;
+        this.count = count;
+    }
+
+    /**
+     * Returns the task that comes first in the source.
+     *
+     * @return the first task.
+     */
+    public Task getFirst() {
+        return first;
+    }
+
+    /**
+     * Returns the task that comes second in the source.
+     *
+     * @return the second task.
+     */
+    public Task getSecond() {
+        return second;
+    }
+
+    /**
+     * Returns the time of the first common run.
+     *
+     * @return the time of the first common run.
+     */
+    public LocalDateTime getTime() {
+        return time;
+    }
+
+    /**
+     * Returns the distance between common runs in seconds, the least common
+     * multiple of the intervals of the tasks, or 0 if they have one common
+     * run.
+     *
+     * @return the distance between common runs.
+     */
+    public long getInterval() {
+        return interval;
+    }
+
+    /**
+     * Returns the number of common runs during the period.
+     *
+     * @return the number of common runs.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "Coincidence{"
+                + "first=" + first
+                + ", second=" + second
+                + ", time=" + time
+                + ", interval=" + interval
+                + ", count=" + count
+                + '}';
+    }
+}
@@ -0,0 +1,460 @@
+package ua.edu.sumdu.j2se.kush.tasks;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A list of tasks stored column by column.
+ * <p>Instead of keeping {@link Task} objects, this list keeps the state of
+ * every task in primitive arrays: the start and end time as UTC epoch
+ * seconds (plus nano-of-second), the recurrence interval, the active and
+ * repeated flags in bit sets and the title as an index in a shared pool of
+ * titles. A non-recurring task is stored with its time as both the start
+ * and the end time.</p>
+ * <p>{@link #getTask(int)}, {@link #iterator()} and {@link #getStream()}
+ * build a new {@link Task} for every returned element, so changes made to a
+ * returned task do not affect this list.</p>
+ */
+public class ColumnarTaskList extends AbstractTaskList implements Cloneable {
+
+    /**
+     * The start time (or the time) of the tasks in epoch seconds.
+     */
+    private long[] startSeconds;
+
+    /**
+     * The nano-of-second of the start time (or the time) of the tasks.
+     */
+    private int[] startNanos;
+
+    /**
+     * The end time (or the time) of the tasks in epoch seconds.
+     */
+    private long[] endSeconds;
+
+    /**
+     * The nano-of-second of the end time (or the time) of the tasks.
+     */
+    private int[] endNanos;
+
+    /**
+     * The recurrence intervals of the tasks, 0 for non-recurring tasks.
+     */
+    private int[] intervals;
+
+    /**
+     * Indexes of the titles of the tasks in {@link #titles}.
+     */
+    private int[] titleIds;
+
+    /**
+     * Active status of the tasks.
+     */
+    private BitSet active = new BitSet();
+
+    /**
+     * Recurrence status of the tasks.
+     */
+    private BitSet repeated = new BitSet();
+
+    /**
+     * The pool of distinct titles.
+     */
+    private String[] titles;
+
+    /**
+     * The position of every title in {@link #titles}.
+     */
+    private Map<String, Integer> titleIndex = new HashMap<>();
+
+    /**
+     * The number of titles in {@link #titles}.
+     */
+    private int titleCount;
+
+    /**
+     * This constructor is to create an empty list.
+     */
+    public ColumnarTaskList() {
+        this(0);
+    }
+
+    /**
+     * This constructor specifies the initial capacity.
+     *
+     * @param initialCapacity this list capacity
+     */
+    public ColumnarTaskList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new NegativeArraySizeException("Capacity must be a "
+                    + "positive number.");
+        }
+        startSeconds = new long[initialCapacity];
+        startNanos = new int[initialCapacity];
+        endSeconds = new long[initialCapacity];
+        endNanos = new int[initialCapacity];
+        intervals = new int[initialCapacity];
+        titleIds = new int[initialCapacity];
+        titles = new String[]{};
+    }
+
+    @Override
+    public ListTypes.types getListType() {
+        return ListTypes.types.COLUMNAR;
+    }
+
+    @Override
+    public Task getTask(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index
+                    + ", size: " + size);
+        }
+        return materialize(index);
+    }
+
+    @Override
+    public void add(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("The task cannot be null.");
+        }
+        if (size == intervals.length) {
+            grow(size + 1);
+        }
+        LocalDateTime start = task.getStartTime();
+        LocalDateTime end = task.getEndTime();
+        startSeconds[size] = start.toEpochSecond(ZoneOffset.UTC);
+        startNanos[size] = start.getNano();
+        endSeconds[size] = end.toEpochSecond(ZoneOffset.UTC);
+        endNanos[size] = end.getNano();
+        intervals[size] = task.getRepeatInterval();
+        titleIds[size] = titleId(task.getTitle());
+        active.set(size, task.isActive());
+        repeated.set(size, task.isRepeated());
+        modified();
+        size++;
+    }
+
+    /**
+     * Increases the capacity of the columns.
+     *
+     * @param minCapacity the minimum required capacity of this list.
+     */
+    private void grow(int minCapacity) {
+        int newCapacity = minCapacity + (minCapacity / 2);
+        startSeconds = Arrays.copyOf(startSeconds, newCapacity);
+        startNanos = Arrays.copyOf(startNanos, newCapacity);
+        endSeconds = Arrays.copyOf(endSeconds, newCapacity);
+        endNanos = Arrays.copyOf(endNanos, newCapacity);
+        intervals = Arrays.copyOf(intervals, newCapacity);
+        titleIds = Arrays.copyOf(titleIds, newCapacity);
+    }
+
+    /**
+     * Returns the position of the title in the pool, adding it if needed.
+     *
+     * @param title the title of a task.
+     * @return the position of the title or -1 for null.
+     */
+    private int titleId(String title) {
+        if (title == null) {
+            return -1;
+        }
+        Integer id = titleIndex.get(title);
+        if (id == null) {
+            if (titleCount == titles.length) {
+                titles = Arrays.copyOf(titles,
+                        titleCount + 1 + (titleCount + 1) / 2);
+            }
+            id = titleCount;
+            titles[titleCount++] = title;
+            titleIndex.put(title, id);
+        }
+        return id;
+    }
+
+    @Override
+    public boolean remove(Task task) {
+        int index = indexOf(task);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * Removes the task at specified position.
+     *
+     * @param index position of the task to remove.
+     */
+    private void removeAt(int index) {
+        int numberOfTasksToShift = size - index - 1;
+        if (numberOfTasksToShift > 0) {
+            System.arraycopy(startSeconds, index + 1, startSeconds, index,
+                    numberOfTasksToShift);
+            System.arraycopy(startNanos, index + 1, startNanos, index,
+                    numberOfTasksToShift);
+            System.arraycopy(endSeconds, index + 1, endSeconds, index,
+                    numberOfTasksToShift);
+            System.arraycopy(endNanos, index + 1, endNanos, index,
+                    numberOfTasksToShift);
+            System.arraycopy(intervals, index + 1, intervals, index,
+                    numberOfTasksToShift);
+            System.arraycopy(titleIds, index + 1, titleIds, index,
+                    numberOfTasksToShift);
+            shiftDown(active, index);
+            shiftDown(repeated, index);
+        }
+        modified();
+        size--;
+        active.clear(size);
+        repeated.clear(size);
+    }
+
+    /**
+     * Moves the bits above the index one position down.
+     *
+     * @param bits  the bit set.
+     * @param index the position of the removed bit.
+     */
+    private void shiftDown(BitSet bits, int index) {
+        for (int i = index; i < size - 1; i++) {
+            bits.set(i, bits.get(i + 1));
+        }
+    }
+
+    /**
+     * Returns the index of the first task with the same state as the
+     * specified task, if there is such task in this list, otherwise -1.
+     *
+     * @param task task
+     * @return index of the task or -1.
+     */
+    public int indexOf(Task task) {
+        if (task == null) {
+            return -1;
+        }
+        Integer titleId = task.getTitle() == null
+                ? Integer.valueOf(-1) : titleIndex.get(task.getTitle());
+        if (titleId == null) {
+            return -1;
+        }
+        LocalDateTime start = task.getStartTime();
+        LocalDateTime end = task.getEndTime();
+        long start0 = start.toEpochSecond(ZoneOffset.UTC);
+        long end0 = end.toEpochSecond(ZoneOffset.UTC);
+        for (int i = 0; i < size; i++) {
+            if (titleIds[i] == titleId
+                    && startSeconds[i] == start0
+                    && startNanos[i] == start.getNano()
+                    && endSeconds[i] == end0
+                    && endNanos[i] == end.getNano()
+                    && intervals[i] == task.getRepeatInterval()
+                    && active.get(i) == task.isActive()
+                    && repeated.get(i) == task.isRepeated()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Builds a task from the columns of the specified row.
+     *
+     * @param index the row.
+     * @return a new task.
+     */
+    private Task materialize(int index) {
+        String title = titleIds[index] < 0 ? null : titles[titleIds[index]];
+        LocalDateTime start = toDateTime(startSeconds[index],
+                startNanos[index]);
+        Task task;
+        if (repeated.get(index)) {
+            task = new Task(title == null ? "" : title, start,
+                    toDateTime(endSeconds[index], endNanos[index]),
+                    intervals[index]);
+        } else {
+            task = new Task(title == null ? "" : title, start);
+        }
+        task.setTitle(title);
+        task.setActive(active.get(index));
+        return task;
+    }
+
+    private static LocalDateTime toDateTime(long seconds, int nanos) {
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    /**
+     * Calculates the next execution time of the task in the specified row
+     * like {@link Task#nextTimeAfter(LocalDateTime)} does, but with
+     * primitive arithmetic only.
+     *
+     * @param index the row.
+     * @param sec   epoch seconds of the current time.
+     * @param nano  nano-of-second of the current time.
+     * @return epoch seconds of the next time or {@link Long#MIN_VALUE} if
+     * there is no next time. The nano-of-second of the next time is the
+     * nano-of-second of the start time.
+     */
+    private long nextTimeAfter(int index, long sec, int nano) {
+        if (!active.get(index)) {
+            return Long.MIN_VALUE;
+        }
+        long start = startSeconds[index];
+        int startNano = startNanos[index];
+        if (compare(sec, nano, start, startNano) < 0) {
+            return start;
+        }
+        if (!repeated.get(index)
+                || compare(sec, nano, endSeconds[index], endNanos[index]) > 0) {
+            return Long.MIN_VALUE;
+        }
+        long diff = sec - start - (nano < startNano ? 1 : 0);
+        long next = start + intervals[index] * (diff / intervals[index] + 1);
+        return compare(next, startNano,
+                endSeconds[index], endNanos[index]) <= 0
+                ? next : Long.MIN_VALUE;
+    }
+
+    private static int compare(long sec1, int nano1, long sec2, int nano2) {
+        int cmp = Long.compare(sec1, sec2);
+        return cmp != 0 ? cmp : Integer.compare(nano1, nano2);
+    }
+
+    /**
+     * Returns the tasks of this list that can be run at least once after
+     * "start" and no later than "end".
+     *
+     * @param start time range start time.
+     * @param end   time range end time.
+     * @return the tasks that run during the period.
+     */
+    public List<Task> incoming(LocalDateTime start, LocalDateTime end) {
+        long from = start.toEpochSecond(ZoneOffset.UTC);
+        long to = end.toEpochSecond(ZoneOffset.UTC);
+        List<Task> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            long next = nextTimeAfter(i, from, start.getNano());
+            if (next != Long.MIN_VALUE
+                    && compare(next, startNanos[i], to, end.getNano()) <= 0) {
+                result.add(materialize(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a schedule of the tasks of this list that can run during the
+     * specified period.
+     *
+     * @param start the start time of the period.
+     * @param end   the end time of the period.
+     * @return sets of tasks grouped by date of run.
+     * @see Tasks#calendar(Iterable, LocalDateTime, LocalDateTime)
+     */
+    public SortedMap<LocalDateTime, Set<Task>> calendar(
+            LocalDateTime start, LocalDateTime end) {
+
+        long from = start.toEpochSecond(ZoneOffset.UTC);
+        long to = end.toEpochSecond(ZoneOffset.UTC);
+        SortedMap<LocalDateTime, Set<Task>> timeline = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            long next = nextTimeAfter(i, from, start.getNano());
+            int nano = startNanos[i];
+            if (next == Long.MIN_VALUE
+                    || compare(next, nano, to, end.getNano()) > 0) {
+                continue;
+            }
+            Task task = materialize(i);
+            long step = repeated.get(i) ? intervals[i] : 0;
+            for (; compare(next, nano, to, end.getNano()) <= 0
+                    && compare(next, nano, endSeconds[i], endNanos[i]) <= 0;
+                 next += step) {
+                timeline.computeIfAbsent(toDateTime(next, nano),
+                        k -> new HashSet<>()).add(task);
+                if (step == 0) {
+                    break;
+                }
+            }
+        }
+        return timeline;
+    }
+
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<Task>() {
+            private int cursor;
+            private int lastRet = -1;
+
+            @Override
+            public boolean hasNext() {
+                return cursor != size;
+            }
+
+            @Override
+            public Task next() {
+                if (cursor >= size) {
+                    throw new NoSuchElementException();
+                }
+                lastRet = cursor++;
+                return materialize(lastRet);
+            }
+
+            @Override
+            public void remove() {
+                if (lastRet < 0) {
+                    throw new IllegalStateException(
+                            "Method remove() should be called after next()");
+                }
+                removeAt(lastRet);
+                cursor = lastRet;
+                lastRet = -1;
+            }
+        };
+    }
+
+    @Override
+    public ColumnarTaskList clone() {
+        try {
+            ColumnarTaskList clone = (ColumnarTaskList) super.clone();
+            clone.startSeconds = Arrays.copyOf(startSeconds, size);
+            clone.startNanos = Arrays.copyOf(startNanos, size);
+            clone.endSeconds = Arrays.copyOf(endSeconds, size);
+            clone.endNanos = Arrays.copyOf(endNanos, size);
+            clone.intervals = Arrays.copyOf(intervals, size);
+            clone.titleIds = Arrays.copyOf(titleIds, size);
+            clone.active = (BitSet) active.clone();
+            clone.repeated = (BitSet) repeated.clone();
+            clone.titles = Arrays.copyOf(titles, titleCount);
+            clone.titleIndex = new HashMap<>(titleIndex);
+            return clone;
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public Stream<Task> getStream() {
+        return IntStream.range(0, size).mapToObj(this::materialize);
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarTaskList" + super.toString();
+    }
+}
@@ -0,0 +1,440 @@
+package ua.edu.sumdu.j2se.kush.tasks;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * A schedule of tasks in flat arrays.
+ * <p>The times of the schedule are kept in ascending order as UTC epoch
+ * seconds and nanoseconds, and the tasks of all the times are kept in one
+ * array: the tasks of time i are at the positions from {@code offsets[i]}
+ * to {@code offsets[i + 1]}. So a time with its tasks takes a few words
+ * instead of a tree map entry, a {@link LocalDateTime} and a hash set.</p>
+ * <p>The schedule holds the same tasks as
+ * {@link Tasks#calendar(Iterable, LocalDateTime, LocalDateTime)} gives for
+ * the same period, and {@link #asSortedMap()} shows it as a read-only map
+ * of the same form.</p>
+ *
+ * @see Tasks#compactCalendar(Iterable, LocalDateTime, LocalDateTime)
+ */
+public class CompactCalendar {
+
+    /**
+     * The times as UTC epoch seconds, in ascending order with the nanos.
+     */
+    private final long[] seconds;
+
+    /**
+     * The nanoseconds of the times.
+     */
+    private final int[] nanos;
+
+    /**
+     * The position of the first task of every time, and the number of all
+     * the tasks at the end.
+     */
+    private final int[] offsets;
+
+    /**
+     * The tasks of all the times.
+     */
+    private final Task[] tasks;
+
+    private CompactCalendar(long[] seconds, int[] nanos, int[] offsets,
+                            Task[] tasks) {
+        this.seconds = seconds;
+        this.nanos = nanos;
+        this.offsets = offsets;
+        this.tasks = tasks;
+    }
+
+    /**
+     * Builds the schedule of tasks that run during the period.
+     * <p>The number of runs of every task is counted in closed form first,
+     * so the arrays are allocated once. Then the runs of the tasks are
+     * merged in order of time by a heap of task positions; a run costs no
+     * allocation.</p>
+     *
+     * @param source collection of tasks.
+     * @param start  the start time of the period (exclusive).
+     * @param end    the end time of the period (inclusive).
+     * @return the schedule.
+     */
+    static CompactCalendar build(Iterable<Task> source, LocalDateTime start,
+                                 LocalDateTime end) {
+        // Equal tasks run at the same times and share a set in a calendar,
+        // so only the first of them is kept.
+        Set<Task> seen = new HashSet<>();
+        Task[] running = new Task[16];
+        long[] remaining = new long[16];
+        int count = 0;
+        long total = 0;
+        for (Task task : Tasks.candidates(source, start, end)) {
+            if (task == null) {
+                continue;
+            }
+            long runs = task.countOccurrences(start, end);
+            if (runs > 0 && seen.add(task)) {
+                if (count == running.length) {
+                    running = Arrays.copyOf(running, count * 2);
+                    remaining = Arrays.copyOf(remaining, count * 2);
+                }
+                running[count] = task;
+                remaining[count++] = runs;
+                total += runs;
+            }
+        }
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("The period has too many "
+                    + "runs: " + total + ".");
+        }
+
+        long[] next = new long[count];
+        int[] nano = new int[count];
+        long[] step = new long[count];
+        int[] heap = new int[count];
+        for (int i = 0; i < count; i++) {
+            Task task = running[i];
+            LocalDateTime first = task.nextTimeAfter(start);
+            next[i] = first.toEpochSecond(ZoneOffset.UTC);
+            nano[i] = first.getNano();
+            step[i] = task.isRepeated() ? task.getRepeatInterval() : 0;
+            heap[i] = i;
+        }
+        for (int i = count / 2 - 1; i >= 0; i--) {
+            siftDown(heap, count, i, next, nano);
+        }
+
+        int runs = (int) total;
+        long[] seconds = new long[runs];
+        int[] nanos = new int[runs];
+        int[] offsets = new int[runs + 1];
+        Task[] tasks = new Task[runs];
+        int times = 0;
+        int size = count;
+        for (int r = 0; r < runs; r++) {
+            int i = heap[0];
+            if (times == 0 || seconds[times - 1] != next[i]
+                    || nanos[times - 1] != nano[i]) {
+                seconds[times] = next[i];
+                nanos[times] = nano[i];
+                offsets[times++] = r;
+            }
+            tasks[r] = running[i];
+            if (--remaining[i] > 0) {
+                next[i] += step[i];
+            } else {
+                heap[0] = heap[--size];
+            }
+            siftDown(heap, size, 0, next, nano);
+        }
+        offsets[times] = runs;
+        return new CompactCalendar(Arrays.copyOf(seconds, times),
+                Arrays.copyOf(nanos, times),
+                Arrays.copyOf(offsets, times + 1), tasks);
+    }
+
+    /**
+     * Moves a task position down the heap ordered by the next runs and then
+     * by the positions, so the tasks of the same time keep the source
+     * order.
+     */
+    private static void siftDown(int[] heap, int size, int i, long[] next,
+                                 int[] nano) {
+        int x = heap[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size
+                    && before(heap[child + 1], heap[child], next, nano)) {
+                child++;
+            }
+            if (!before(heap[child], x, next, nano)) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = x;
+    }
+
+    private static boolean before(int a, int b, long[] next, int[] nano) {
+        if (next[a] != next[b]) {
+            return next[a] < next[b];
+        }
+        if (nano[a] != nano[b]) {
+            return nano[a] < nano[b];
+        }
+        return a < b;
+    }
+
+    /**
+     * Returns the number of times of the schedule.
+     *
+     * @return the number of times.
+     */
+    public int size() {
+        return seconds.length;
+    }
+
+    /**
+     * Returns the number of runs of the schedule, the number of tasks of all
+     * the times.
+     *
+     * @return the number of runs.
+     */
+    public int runCount() {
+        return tasks.length;
+    }
+
+    /**
+     * Returns the time at the specified position.
+     *
+     * @param index the position of the time.
+     * @return the time.
+     */
+    public LocalDateTime timeAt(int index) {
+        return LocalDateTime.ofEpochSecond(seconds[index], nanos[index],
+                ZoneOffset.UTC);
+    }
+
+    /**
+     * Returns the time at the specified position as UTC epoch seconds.
+     *
+     * @param index the position of the time.
+     * @return the epoch seconds of the time.
+     */
+    public long epochSecondAt(int index) {
+        return seconds[index];
+    }
+
+    /**
+     * Returns the number of tasks of the time at the specified position.
+     *
+     * @param index the position of the time.
+     * @return the number of tasks.
+     */
+    public int taskCountAt(int index) {
+        return offsets[index + 1] - offsets[index];
+    }
+
+    /**
+     * Returns the tasks of the time at the specified position in the order
+     * of the source.
+     *
+     * @param index the position of the time.
+     * @return a read-only list of the tasks.
+     */
+    public List<Task> tasksAt(int index) {
+        return Collections.unmodifiableList(Arrays.asList(tasks)
+                .subList(offsets[index], offsets[index + 1]));
+    }
+
+    /**
+     * Returns the position of the time, or {@code -(insertion point) - 1}
+     * if the schedule has no such time.
+     *
+     * @param time the time.
+     * @return the position of the time.
+     */
+    public int indexOf(LocalDateTime time) {
+        return search(time.toEpochSecond(ZoneOffset.UTC), time.getNano(),
+                0, seconds.length);
+    }
+
+    private int search(long second, int nano, int from, int to) {
+        int low = from;
+        int high = to - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = seconds[mid] != second
+                    ? Long.compare(seconds[mid], second)
+                    : Integer.compare(nanos[mid], nano);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Returns the first position whose time is no earlier than the time.
+     */
+    private int lowerBound(LocalDateTime time, int from, int to) {
+        int index = search(time.toEpochSecond(ZoneOffset.UTC),
+                time.getNano(), from, to);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Returns a read-only view of the schedule in the form of
+     * {@link Tasks#calendar(Iterable, LocalDateTime, LocalDateTime)}. The
+     * times and the sets are made when they are read.
+     *
+     * @return the view.
+     */
+    public SortedMap<LocalDateTime, Set<Task>> asSortedMap() {
+        return new View(0, seconds.length);
+    }
+
+    /**
+     * A read-only map of the times from "from" to "to".
+     */
+    private class View extends AbstractMap<LocalDateTime, Set<Task>>
+            implements SortedMap<LocalDateTime, Set<Task>> {
+        private final int from;
+        private final int to;
+
+        View(int from, int to) {
+            this.from = from;
+            this.to = Math.max(from, to);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return indexOfKey(key) >= 0;
+        }
+
+        @Override
+        public Set<Task> get(Object key) {
+            int index = indexOfKey(key);
+            return index < 0 ? null : new TaskSet(index);
+        }
+
+        private int indexOfKey(Object key) {
+            if (!(key instanceof LocalDateTime)) {
+                return -1;
+            }
+            LocalDateTime time = (LocalDateTime) key;
+            return search(time.toEpochSecond(ZoneOffset.UTC),
+                    time.getNano(), from, to);
+        }
+
+        @Override
+        public Comparator<? super LocalDateTime> comparator() {
+            return null;
+        }
+
+        @Override
+        public SortedMap<LocalDateTime, Set<Task>> subMap(
+                LocalDateTime fromKey, LocalDateTime toKey) {
+            if (fromKey.isAfter(toKey)) {
+                throw new IllegalArgumentException("fromKey > toKey");
+            }
+            return new View(lowerBound(fromKey, from, to),
+                    lowerBound(toKey, from, to));
+        }
+
+        @Override
+        public SortedMap<LocalDateTime, Set<Task>> headMap(
+                LocalDateTime toKey) {
+            return new View(from, lowerBound(toKey, from, to));
+        }
+
+        @Override
+        public SortedMap<LocalDateTime, Set<Task>> tailMap(
+                LocalDateTime fromKey) {
+            return new View(lowerBound(fromKey, from, to), to);
+        }
+
+        @Override
+        public LocalDateTime firstKey() {
+            if (from == to) {
+                throw new NoSuchElementException();
+            }
+            return timeAt(from);
+        }
+
+        @Override
+        public LocalDateTime lastKey() {
+            if (from == to) {
+                throw new NoSuchElementException();
+            }
+            return timeAt(to - 1);
+        }
+
+        @Override
+        public Set<Entry<LocalDateTime, Set<Task>>> entrySet() {
+            return new AbstractSet<Entry<LocalDateTime, Set<Task>>>() {
+                @Override
+                public int size() {
+                    return to - from;
+                }
+
+                @Override
+                public Iterator<Entry<LocalDateTime, Set<Task>>> iterator() {
+                    return new Iterator<Entry<LocalDateTime, Set<Task>>>() {
+                        private int cursor = from;
+
+                        @Override
+                        public boolean hasNext() {
+                            return cursor < to;
+                        }
+
+                        @Override
+                        public Entry<LocalDateTime, Set<Task>> next() {
+                            if (cursor >= to) {
+                                throw new NoSuchElementException();
+                            }
+                            int index = cursor++;
+                            return new SimpleImmutableEntry<>(timeAt(index),
+                                    new TaskSet(index));
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    /**
+     * A read-only set of the tasks of a time.
+     */
+    private class TaskSet extends AbstractSet<Task> {
+        private final int index;
+
+        TaskSet(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public int size() {
+            return offsets[index + 1] - offsets[index];
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            for (int i = offsets[index]; i < offsets[index + 1]; i++) {
+                if (tasks[i].equals(o)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Iterator<Task> iterator() {
+            return tasksAt(index).iterator();
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package ua.edu.sumdu.j2se.kush.tasks;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * A task that keeps its times as UTC epoch seconds plus nano-of-second.
+ * <p>The class has the same public API as {@link Task}, but
+ * {@link #nextTimeAfter(LocalDateTime)} does the recurrence math with
+ * primitive longs and creates only the returned {@link LocalDateTime}.
+ * {@link #nextTimeAfter(long, int)} does not create objects at all.</p>
+ * <p>The getters build a new {@link LocalDateTime} on every call. A compact
+ * task is never equal to a {@link Task}, even if they describe the same
+ * work.</p>
+ */
+public class CompactTask extends Task {
+
+    /**
+     * The value of a nano-of-second field of a time that is not set.
+     */
+    private static final int NO_TIME = -1;
+
+    /**
+     * Time to complete a non-recurring task in epoch seconds.
+     */
+    private long timeSecond;
+
+    /**
+     * The nano-of-second of the time or {@link #NO_TIME}.
+     */
+    private int timeNano = NO_TIME;
+
+    /**
+     * Start time of recurring task in epoch seconds.
+     */
+    private long startSecond;
+
+    /**
+     * The nano-of-second of the start time or {@link #NO_TIME}.
+     */
+    private int startNano = NO_TIME;
+
+    /**
+     * End time of recurring task in epoch seconds.
+     */
+    private long endSecond;
+
+    /**
+     * The nano-of-second of the end time or {@link #NO_TIME}.
+     */
+    private int endNano = NO_TIME;
+
+    /**
+     * The recurrence interval for the recurring task.
+     */
+    private int interval;
+
+    /**
+     * This class constructor defines a non-recurring task.
+     *
+     * @param title task name.
+     * @param time  task time.
+     */
+    public CompactTask(String title,
+                       LocalDateTime time) {
+        super(title);
+        if (time == null) {
+            throw new IllegalArgumentException("The time must be non-null.");
+        }
+        setTime(time);
+    }
+
+    /**
+     * This class constructor defines a recurring task.
+     *
+     * @param title    task name.
+     * @param start    task start time.
+     * @param end      task end time.
+     * @param interval task recurrence interval.
+     */
+    public CompactTask(String title,
+                       LocalDateTime start,
+                       LocalDateTime end,
+                       int interval) {
+        super(title);
+        setTime(start, end, interval);
+    }
+
+    /**
+     * This constructor copies the state of another task.
+     *
+     * @param task the task to copy.
+     */
+    public CompactTask(Task task) {
+        super(task.getTitle());
+        if (task.isRepeated()) {
+            setTime(task.getStartTime(), task.getEndTime(),
+                    task.getRepeatInterval());
+        } else {
+            setTime(task.getTime());
+        }
+        setActive(task.isActive());
+    }
+
+    @Override
+    public LocalDateTime getTime() {
+        return isRepeated() ? getStartTime() : toDateTime(timeSecond, timeNano);
+    }
+
+    @Override
+    public void setTime(LocalDateTime time) {
+        checkNotFrozen();
+        if (time == null) {
+            timeSecond = 0;
+            timeNano = NO_TIME;
+        } else {
+            timeSecond = time.toEpochSecond(ZoneOffset.UTC);
+            timeNano = time.getNano();
+        }
+        setRepeated(false);
+    }
+
+    @Override
+    public void setTime(LocalDateTime start,
+                        LocalDateTime end,
+                        int interval) {
+        checkNotFrozen();
+
+        if (start == null) {
+            throw new IllegalArgumentException("The start time "
+                    + "must be non-null.");
+        }
+        if (end == null) {
+            throw new IllegalArgumentException("The end time "
+                    + "must be non-null.");
+        }
+
+        if (interval <= 0) {
+            throw new IllegalArgumentException("The interval must be >= 0.");
+        }
+        startSecond = start.toEpochSecond(ZoneOffset.UTC);
+        startNano = start.getNano();
+        endSecond = end.toEpochSecond(ZoneOffset.UTC);
+        endNano = end.getNano();
+        this.interval = interval;
+        setRepeated(true);
+    }
+
+    @Override
+    public LocalDateTime getStartTime() {
+        return isRepeated() ? toDateTime(startSecond, startNano)
+                : toDateTime(timeSecond, timeNano);
+    }
+
+    @Override
+    public void setStartTime(LocalDateTime start) {
+        checkNotFrozen();
+        if (start == null) {
+            throw new IllegalArgumentException("The start time "
+                    + "must be non-null.");
+        }
+        startSecond = start.toEpochSecond(ZoneOffset.UTC);
+        startNano = start.getNano();
+    }
+
+    @Override
+    public LocalDateTime getEndTime() {
+        return isRepeated() ? toDateTime(endSecond, endNano)
+                : toDateTime(timeSecond, timeNano);
+    }
+
+    @Override
+    public void setEndTime(LocalDateTime end) {
+        checkNotFrozen();
+        if (end == null) {
+            throw new IllegalArgumentException("The end time "
+                    + "must be non-null.");
+        }
+        endSecond = end.toEpochSecond(ZoneOffset.UTC);
+        endNano = end.getNano();
+    }
+
+    @Override
+    public int getRepeatInterval() {
+        return isRepeated() ? interval : 0;
+    }
+
+    @Override
+    public void setInterval(int interval) {
+        checkNotFrozen();
+        if (interval <= 0) {
+            throw new IllegalArgumentException("The interval must be >= 0.");
+        }
+        this.interval = interval;
+    }
+
+    @Override
+    public LocalDateTime nextTimeAfter(LocalDateTime current) {
+        long next = nextTimeAfter(current.toEpochSecond(ZoneOffset.UTC),
+                current.getNano());
+        if (next == Long.MIN_VALUE) {
+            return null;
+        }
+        return toDateTime(next, isRepeated() ? startNano : timeNano);
+    }
+
+    /**
+     * Calculates the next execution time for the task like
+     * {@link #nextTimeAfter(LocalDateTime)} does, but with primitive
+     * arithmetic only.
+     *
+     * @param second epoch seconds of the current time.
+     * @param nano   nano-of-second of the current time.
+     * @return epoch seconds of the next time or {@link Long#MIN_VALUE} if
+     * there is no next time. The nano-of-second of the next time is the
+     * nano-of-second of the start time.
+     */
+    public long nextTimeAfter(long second, int nano) {
+        if (!isActive()) {
+            return Long.MIN_VALUE;
+        }
+        if (!isRepeated()) {
+            return timeNano != NO_TIME
+                    && compare(second, nano, timeSecond, timeNano) < 0
+                    ? timeSecond : Long.MIN_VALUE;
+        }
+        if (startNano == NO_TIME || endNano == NO_TIME) {
+            return Long.MIN_VALUE;
+        }
+        if (compare(second, nano, startSecond, startNano) < 0) {
+            return startSecond;
+        }
+        if (compare(second, nano, endSecond, endNano) > 0) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            long diff = Math.subtractExact(second, startSecond)
+                    - (nano < startNano ? 1 : 0);
+            long next = Math.addExact(startSecond,
+                    Math.multiplyExact((long) interval, diff / interval + 1));
+            return compare(next, startNano, endSecond, endNano) <= 0
+                    ? next : Long.MIN_VALUE;
+        } catch (ArithmeticException e) {
+            // The next time is beyond any representable end time.
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private static int compare(long sec1, int nano1, long sec2, int nano2) {
+        int cmp = Long.compare(sec1, sec2);
+        return cmp != 0 ? cmp : Integer.compare(nano1, nano2);
+    }
+
+    private static LocalDateTime toDateTime(long seconds, int nanos) {
+        return nanos == NO_TIME ? null
+                : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CompactTask task = (CompactTask) o;
+
+        return timeSecond == task.timeSecond
+                && timeNano == task.timeNano
+                && startSecond == task.startSecond
+                && startNano == task.startNano
+                && endSecond == task.endSecond
+                && endNano == task.endNano
+                && interval == task.interval
+                && isActive() == task.isActive()
+                && isRepeated() == task.isRepeated()
+                && getTitle().equals(task.getTitle());
+    }
+
+    @Override
+    public int hashCode() {
+        if (isFrozen()) {
+            return super.hashCode();
+        }
+        int result = getTitle() == null ? 0 : getTitle().hashCode();
+        result = 31 * result + Long.hashCode(timeSecond);
+        result = 31 * result + timeNano;
+        result = 31 * result + Long.hashCode(startSecond);
+        result = 31 * result + startNano;
+        result = 31 * result + Long.hashCode(endSecond);
+        result = 31 * result + endNano;
+        result = 31 * result + interval;
+        result = 31 * result + (isActive() ? 1 : 0);
+        result = 31 * result + (isRepeated() ? 1 : 0);
+        return result;
+    }
+
+    @Override
+    public CompactTask clone() {
+        return (CompactTask) super.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "CompactTask{" +
+                "title='" + getTitle() + '\'' +
+                ", time=" + toDateTime(timeSecond, timeNano) +
+                ", start=" + toDateTime(startSecond, startNano) +
+                ", end=" + toDateTime(endSecond, endNano) +
+                ", interval=" + interval +
+                ", isActive=" + isActive() +
+                ", isRepeated=" + isRepeated() +
+                '}';
+    }
+}
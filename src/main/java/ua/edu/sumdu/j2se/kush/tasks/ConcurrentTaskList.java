@@ -0,0 +1,369 @@
+package ua.edu.sumdu.j2se.kush.tasks;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * A thread-safe list of tasks based on an array.
+ * <p>Readers do not block each other: {@link #size()},
+ * {@link #getTask(int)} and {@link #iterator()} use optimistic reads of a
+ * {@link StampedLock} and take the read lock only if a writer has
+ * interfered. {@link #add(Task)} and {@link #remove(Task)} hold the write
+ * lock only while the array is changed.</p>
+ * <p>The tasks of the array below {@link #size} are never changed: a task
+ * is added after them and a removal makes a new array. So an iterator or a
+ * stream reads the array and the size it has seen without copying.</p>
+ * <p>Iterators are weakly consistent: an iterator works with the tasks that
+ * were in the list when it was created and {@link Iterator#next()} never
+ * throws {@link java.util.ConcurrentModificationException}.
+ * {@link Iterator#remove()} removes the task at the position the iterator
+ * has returned and throws the exception if another removal has moved the
+ * tasks since the iterator was created.</p>
+ */
+public class ConcurrentTaskList extends AbstractTaskList implements Cloneable {
+
+    /**
+     * An array to store added tasks.
+     */
+    private Task[] list;
+
+    /**
+     * The number of removals, they move the tasks of the list.
+     */
+    private long removals;
+
+    /**
+     * The lock that guards {@link #list}, {@link #size} and
+     * {@link #removals}.
+     */
+    private StampedLock lock = new StampedLock();
+
+    /**
+     * This constructor is to create an empty list.
+     */
+    public ConcurrentTaskList() {
+        list = new Task[]{};
+    }
+
+    @Override
+    public ListTypes.types getListType() {
+        return ListTypes.types.CONCURRENT;
+    }
+
+    @Override
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int result = size;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long getVersion() {
+        long stamp = lock.tryOptimisticRead();
+        long result = super.getVersion();
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = super.getVersion();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Task getTask(int index) {
+        long stamp = lock.tryOptimisticRead();
+        Task[] tasks = list;
+        int count = size;
+        Task result = index >= 0 && index < count && index < tasks.length
+                ? tasks[index] : null;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                count = size;
+                result = index >= 0 && index < count ? list[index] : null;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index: " + index
+                    + ", size: " + count);
+        }
+        return result;
+    }
+
+    @Override
+    public void add(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("The task cannot be null.");
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (size == list.length) {
+                list = Arrays.copyOf(list, size + 1 + ((size + 1) / 2));
+            }
+            modified();
+            list[size++] = intern(task);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean remove(Task task) {
+        if (task == null) {
+            return false;
+        }
+        long stamp = lock.readLock();
+        try {
+            while (true) {
+                int index = indexOf(task);
+                if (index < 0) {
+                    return false;
+                }
+                long ws = lock.tryConvertToWriteLock(stamp);
+                if (ws != 0L) {
+                    stamp = ws;
+                    removeAt(index);
+                    return true;
+                }
+                lock.unlockRead(stamp);
+                stamp = lock.writeLock();
+            }
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
+    /**
+     * Returns the index of the task in the array, the caller must hold the
+     * lock.
+     *
+     * @param task task
+     * @return index of the task or -1.
+     */
+    private int indexOf(Task task) {
+        for (int i = 0; i < size; i++) {
+            if (task.equals(list[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Removes the task at the position into a new array, the caller must
+     * hold the write lock.
+     *
+     * @param index position of the task to remove.
+     */
+    private void removeAt(int index) {
+        Task[] tasks = new Task[list.length];
+        System.arraycopy(list, 0, tasks, 0, index);
+        System.arraycopy(list, index + 1, tasks, index, size - index - 1);
+        modified();
+        list = tasks;
+        size--;
+        removals++;
+    }
+
+    /**
+     * Returns the array, the size and the counters of this list seen at one
+     * moment.
+     *
+     * @return the snapshot of this list.
+     */
+    private Snapshot snapshot() {
+        long stamp = lock.tryOptimisticRead();
+        Snapshot result = new Snapshot(list, size, removals,
+                super.getVersion());
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = new Snapshot(list, size, removals,
+                        super.getVersion());
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Iterator<Task> iterator() {
+        final Snapshot snapshot = snapshot();
+        return new Iterator<Task>() {
+            private int cursor;
+            private int lastRet = -1;
+
+            /**
+             * The number of tasks removed by this iterator, the position
+             * of a task in the list is its position in the snapshot minus
+             * it.
+             */
+            private int removed;
+
+            /**
+             * The number of removals of the list this iterator expects.
+             */
+            private long expectedRemovals = snapshot.removals;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < snapshot.size;
+            }
+
+            @Override
+            public Task next() {
+                if (cursor >= snapshot.size) {
+                    throw new NoSuchElementException();
+                }
+                lastRet = cursor++;
+                return snapshot.tasks[lastRet];
+            }
+
+            @Override
+            public void remove() {
+                if (lastRet < 0) {
+                    throw new IllegalStateException(
+                            "Method remove() should be called after next()");
+                }
+                long stamp = lock.writeLock();
+                try {
+                    if (removals != expectedRemovals) {
+                        throw new ConcurrentModificationException();
+                    }
+                    removeAt(lastRet - removed);
+                    expectedRemovals = removals;
+                } finally {
+                    lock.unlockWrite(stamp);
+                }
+                removed++;
+                lastRet = -1;
+            }
+        };
+    }
+
+    /**
+     * Removes all tasks of this list that satisfy the given predicate at
+     * once. The predicate is tested without the lock, so it is tested again
+     * if another thread changes the list before the matches are removed.
+     *
+     * @param filter a predicate which returns true for tasks to be removed.
+     * @return true if any tasks were removed.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Task> filter) {
+        Objects.requireNonNull(filter);
+        while (true) {
+            Snapshot snapshot = snapshot();
+            BitSet matches = new BitSet(snapshot.size);
+            for (int i = 0; i < snapshot.size; i++) {
+                if (filter.test(snapshot.tasks[i])) {
+                    matches.set(i);
+                }
+            }
+            if (matches.isEmpty()) {
+                return false;
+            }
+            long stamp = lock.writeLock();
+            try {
+                if (super.getVersion() == snapshot.version) {
+                    Task[] tasks = new Task[list.length];
+                    int j = 0;
+                    for (int i = 0; i < size; i++) {
+                        if (!matches.get(i)) {
+                            tasks[j++] = list[i];
+                        }
+                    }
+                    modified();
+                    list = tasks;
+                    size = j;
+                    removals++;
+                    return true;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    @Override
+    public ConcurrentTaskList clone() {
+        try {
+            Snapshot snapshot = snapshot();
+            ConcurrentTaskList clone = (ConcurrentTaskList) super.clone();
+            clone.lock = new StampedLock();
+            clone.list = new Task[snapshot.size];
+            for (int i = 0; i < snapshot.size; i++) {
+                clone.list[i] = snapshot.tasks[i].clone();
+            }
+            clone.size = snapshot.size;
+            return clone;
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public Stream<Task> getStream() {
+        Snapshot snapshot = snapshot();
+        return Arrays.stream(snapshot.tasks, 0, snapshot.size);
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentTaskList" + super.toString();
+    }
+
+    /**
+     * The array and the size of the list seen at one moment.
+     */
+    private static final class Snapshot {
+
+        /**
+         * The array, the tasks below {@link #size} are never changed.
+         */
+        final Task[] tasks;
+
+        /**
+         * The number of tasks.
+         */
+        final int size;
+
+        /**
+         * The number of removals of the list.
+         */
+        final long removals;
+
+        /**
+         * The version of the list.
+         */
+        final long version;
+
+        Snapshot(Task[] tasks, int size, long removals, long version) {
+            this.tasks = tasks;
+            this.size = size;
+            this.removals = removals;
+            this.version = version;
+        }
+    }
+}
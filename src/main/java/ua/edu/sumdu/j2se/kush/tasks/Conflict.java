@@ -0,0 +1,85 @@
+package ua.edu.sumdu.j2se.kush.tasks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A group of runs of different tasks that fire at the same time or within
+ * a tolerance of each other.
+ *
+ * @see Tasks#conflicts(Iterable, LocalDateTime, LocalDateTime,
+ * java.time.Duration)
+ */
+public class Conflict {
+
+    /**
+     * The runs of the group in order of time.
+     */
+    private final List<Map.Entry<LocalDateTime, Task>> runs;
+
+    /**
+     * This constructor defines a group of runs.
+     *
+     * @param runs the runs in order of time.
+     */
+    Conflict(List<Map.Entry<LocalDateTime, Task>> runs) {
+        this.runs = Collections.unmodifiableList(runs);
+    }
+
+    /**
+     * Returns the time of the first run of the group.
+     *
+     * @return the time of the first run.
+     */
+    public LocalDateTime getStart() {
+        return runs.get(0).getKey();
+    }
+
+    /**
+     * Returns the time of the last run of the group.
+     *
+     * @return the time of the last run.
+     */
+    public LocalDateTime getEnd() {
+        return runs.get(runs.size() - 1).getKey();
+    }
+
+    /**
+     * Returns the runs of the group in order of time, each run as a pair of
+     * the time and the task.
+     *
+     * @return a read-only list of the runs.
+     */
+    public List<Map.Entry<LocalDateTime, Task>> getRuns() {
+        return runs;
+    }
+
+    /**
+     * Returns the tasks of the group in order of their first runs.
+     *
+     * @return the tasks.
+     */
+    public List<Task> getTasks() {
+        Map<Task, Boolean> seen = new IdentityHashMap<>();
+        List<Task> tasks = new ArrayList<>();
+        for (Map.Entry<LocalDateTime, Task> run : runs) {
+            if (seen.put(run.getValue(), Boolean.TRUE) == null) {
+                tasks.add(run.getValue());
+            }
+        }
+        return tasks;
+    }
+
+    @Override
+    public String toString() {
+        return "Conflict{"
+                + "start=" + getStart()
+                + ", end=" + getEnd()
+                + ", runs=" + runs
+                + '}';
+    }
+}
@@ -0,0 +1,359 @@
+package ua.edu.sumdu.j2se.kush.tasks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * An iterator over the conflicts of tasks during a period.
+ * <p>Two runs of different tasks conflict if they are no more than the
+ * tolerance apart, and a conflict is a group of runs connected by such
+ * pairs. The runs of the tasks are swept in order of time, as
+ * {@link OccurrenceIterator} does, and only the runs of the last
+ * "tolerance" are kept. A group is returned as soon as the sweep has moved
+ * farther than the tolerance from its last run, so the groups come in
+ * order of their last runs.</p>
+ * <p>A run that has no run of another task within the tolerance on either
+ * side cannot conflict, and neither can the following runs of its task
+ * until the next run of another task comes near. Such a task is moved in
+ * closed form to its first run that is within the tolerance of the next
+ * run of another task. When only two recurring tasks are left and the
+ * greatest common divisor of their intervals shows that their runs never
+ * come within the tolerance, the sweep stops.</p>
+ *
+ * @see Tasks#conflicts(Iterable, LocalDateTime, LocalDateTime, Duration)
+ */
+class ConflictIterator implements Iterator<Conflict> {
+
+    /**
+     * Cursors of the tasks that have runs left.
+     */
+    private final PriorityQueue<Cursor> queue = new PriorityQueue<>();
+
+    /**
+     * The largest distance between conflicting runs.
+     */
+    private final Duration tolerance;
+
+    /**
+     * The swept runs of the last "tolerance".
+     */
+    private final Deque<Run> window = new ArrayDeque<>();
+
+    /**
+     * The groups that have been closed and not returned yet.
+     */
+    private final Deque<Conflict> ready = new ArrayDeque<>();
+
+    /**
+     * The last swept run.
+     */
+    private Run last;
+
+    /**
+     * The time of the last swept run of a task other than the task of
+     * {@link #last}, or null.
+     */
+    private LocalDateTime lastOther;
+
+    /**
+     * The number of swept runs.
+     */
+    private long sequence;
+
+    /**
+     * This constructor finds the first run of every task in (start, end].
+     *
+     * @param tasks     collection of tasks.
+     * @param start     the start time of the period.
+     * @param end       the end time of the period.
+     * @param tolerance the largest distance between conflicting runs.
+     */
+    ConflictIterator(Iterable<Task> tasks, LocalDateTime start,
+                     LocalDateTime end, Duration tolerance) {
+        if (tolerance == null || tolerance.isNegative()) {
+            throw new IllegalArgumentException("The tolerance must be >= 0.");
+        }
+        this.tolerance = tolerance;
+        int order = 0;
+        for (Task task : Tasks.candidates(tasks, start, end)) {
+            if (task == null) {
+                continue;
+            }
+            LocalDateTime next = task.nextTimeAfter(start);
+            if (next != null && !next.isAfter(end)) {
+                Cursor cursor = new Cursor(task, next, order);
+                cursor.last = next;
+                if (task.isRepeated()) {
+                    cursor.interval = task.getRepeatInterval();
+                    cursor.last = task.getEndTime().isBefore(end)
+                            ? task.getEndTime() : end;
+                }
+                queue.add(cursor);
+            }
+            order++;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (ready.isEmpty() && (!queue.isEmpty() || !window.isEmpty())) {
+            sweep();
+        }
+        return !ready.isEmpty();
+    }
+
+    @Override
+    public Conflict next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return ready.poll();
+    }
+
+    /**
+     * Sweeps the next run, or closes the remaining groups if there are no
+     * runs left.
+     */
+    private void sweep() {
+        Cursor cursor = queue.poll();
+        if (cursor == null) {
+            while (!window.isEmpty()) {
+                evict(window.poll());
+            }
+            return;
+        }
+        LocalDateTime time = cursor.time;
+        while (!window.isEmpty() && !near(window.peek().time, time)) {
+            evict(window.poll());
+        }
+        Cursor other = queue.peek();
+        LocalDateTime before = last == null ? null
+                : last.task != cursor.task ? last.time : lastOther;
+        if ((before == null || !near(before, time))
+                && (other == null || !near(time, other.time))) {
+            skip(cursor, other);
+            return;
+        }
+
+        Run run = new Run(time, cursor.task, sequence++);
+        Group group = new Group(run);
+        for (Run r : window) {
+            if (r.task != cursor.task) {
+                group = group.union(r.group.find());
+            }
+        }
+        group.last = run;
+        window.add(run);
+        if (last != null && last.task != cursor.task) {
+            lastOther = last.time;
+        }
+        last = run;
+        if (cursor.advance(cursor.time)) {
+            queue.add(cursor);
+        }
+    }
+
+    /**
+     * Moves a task whose run cannot conflict to its first run that may
+     * conflict with the next run of another task.
+     *
+     * @param cursor the cursor of the task.
+     * @param other  the earliest cursor of another task, or null.
+     */
+    private void skip(Cursor cursor, Cursor other) {
+        if (other == null || (queue.size() == 1 && neverMeet(cursor, other))) {
+            return;
+        }
+        LocalDateTime target = other.time.minus(tolerance);
+        if (cursor.advance(target.isAfter(cursor.time) ? target
+                : cursor.time)) {
+            queue.add(cursor);
+        }
+    }
+
+    /**
+     * Returns true if the runs of two recurring tasks from their cursors on
+     * are never within the tolerance. The differences of the runs are the
+     * difference of the cursors plus the multiples of the greatest common
+     * divisor of the intervals.
+     *
+     * @param a the cursor of a task.
+     * @param b the cursor of another task.
+     * @return true if the tasks never conflict.
+     */
+    private boolean neverMeet(Cursor a, Cursor b) {
+        if (a.interval == 0 || b.interval == 0) {
+            return false;
+        }
+        long gcd = Progression.gcd(a.interval, b.interval);
+        Duration difference = Duration.between(a.time, b.time);
+        long remainder = Math.floorMod(difference.getSeconds(), gcd);
+        Duration distance = Duration.ofSeconds(remainder,
+                difference.getNano());
+        Duration opposite = Duration.ofSeconds(gcd).minus(distance);
+        return distance.compareTo(tolerance) > 0
+                && opposite.compareTo(tolerance) > 0;
+    }
+
+    /**
+     * Returns true if the later time is no more than the tolerance after
+     * the earlier time.
+     */
+    private boolean near(LocalDateTime earlier, LocalDateTime later) {
+        return !later.isAfter(earlier.plus(tolerance));
+    }
+
+    /**
+     * Removes a run from the window and returns its group if the run was
+     * the last run of a group of two or more runs.
+     *
+     * @param run the earliest run of the window.
+     */
+    private void evict(Run run) {
+        Group group = run.group.find();
+        if (group.last == run && group.runs.size() > 1) {
+            List<Run> runs = group.runs;
+            runs.sort(Comparator.comparingLong(r -> r.sequence));
+            List<Map.Entry<LocalDateTime, Task>> entries =
+                    new ArrayList<>(runs.size());
+            for (Run r : runs) {
+                entries.add(new AbstractMap.SimpleImmutableEntry<>(r.time,
+                        r.task));
+            }
+            ready.add(new Conflict(entries));
+        }
+    }
+
+    /**
+     * A swept run.
+     */
+    private static class Run {
+        private final LocalDateTime time;
+        private final Task task;
+        private final long sequence;
+        private Group group;
+
+        Run(LocalDateTime time, Task task, long sequence) {
+            this.time = time;
+            this.task = task;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * A group of connected runs, a node of a disjoint-set forest.
+     */
+    private static class Group {
+        private Group parent = this;
+        private List<Run> runs = new ArrayList<>();
+
+        /**
+         * The latest run of the group.
+         */
+        private Run last;
+
+        Group(Run run) {
+            runs.add(run);
+            run.group = this;
+            last = run;
+        }
+
+        Group find() {
+            Group root = this;
+            while (root.parent != root) {
+                root = root.parent;
+            }
+            for (Group g = this; g != root; ) {
+                Group next = g.parent;
+                g.parent = root;
+                g = next;
+            }
+            return root;
+        }
+
+        /**
+         * Joins two roots, the smaller group into the larger one.
+         *
+         * @param other another root.
+         * @return the root of the joined group.
+         */
+        Group union(Group other) {
+            if (other == this) {
+                return this;
+            }
+            Group big = runs.size() >= other.runs.size() ? this : other;
+            Group small = big == this ? other : this;
+            big.runs.addAll(small.runs);
+            small.runs = null;
+            small.parent = big;
+            return big;
+        }
+    }
+
+    /**
+     * The next run of a task.
+     */
+    private static class Cursor implements Comparable<Cursor> {
+        private final Task task;
+        private final int order;
+        private LocalDateTime time;
+
+        /**
+         * The interval of a recurring task, 0 for a non-recurring one.
+         */
+        private int interval;
+
+        /**
+         * The latest time of a run of the task in the period.
+         */
+        private LocalDateTime last;
+
+        Cursor(Task task, LocalDateTime time, int order) {
+            this.task = task;
+            this.time = time;
+            this.order = order;
+        }
+
+        /**
+         * Moves the cursor to the first run after the current one that is
+         * no earlier than the time.
+         *
+         * @param time the time.
+         * @return false if the task has no such run in the period.
+         */
+        boolean advance(LocalDateTime time) {
+            if (interval == 0) {
+                return false;
+            }
+            Duration distance = Duration.between(this.time, time);
+            long steps = distance.getSeconds() / interval;
+            if (steps * interval < distance.getSeconds()
+                    || distance.getNano() > 0) {
+                steps++;
+            }
+            LocalDateTime next = this.time.plusSeconds(
+                    Math.max(1, steps) * interval);
+            if (next.isAfter(last)) {
+                return false;
+            }
+            this.time = next;
+            return true;
+        }
+
+        @Override
+        public int compareTo(Cursor o) {
+            int cmp = time.compareTo(o.time);
+            return cmp != 0 ? cmp : Integer.compare(order, o.order);
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package ua.edu.sumdu.j2se.kush.tasks;
+
+import java.time.LocalDateTime;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * An index of tasks by their next run time.
+ * <p>The index is a binary min-heap of the tasks keyed by
+ * {@link Task#nextTimeAfter(LocalDateTime)} after the current time of the
+ * index. Every task knows its position in the heap, so a task is added,
+ * removed or moved after a change in O(log n). The tasks that have no next
+ * run are kept out of the heap until they are updated.</p>
+ * <p>The index does not see changes of tasks by itself: after
+ * {@link Task#setTime(LocalDateTime)}, {@link Task#setActive(boolean)} and
+ * the like, {@link #update(Task)} must be called. Tasks are told apart by
+ * identity, not by {@link Task#equals(Object)}.</p>
+ */
+public class DueIndex {
+
+    /**
+     * The heap of the tasks that have a next run.
+     */
+    private Node[] heap;
+
+    /**
+     * The number of nodes in the heap.
+     */
+    private int heapSize;
+
+    /**
+     * The node of every indexed task.
+     */
+    private final Map<Task, Node> nodes = new IdentityHashMap<>();
+
+    /**
+     * The current time of the index.
+     */
+    private LocalDateTime now;
+
+    /**
+     * The sequence number of the next added task, it orders tasks with the
+     * same next run time.
+     */
+    private long sequence;
+
+    /**
+     * This constructor indexes every task of the list by its next run after
+     * the specified time.
+     *
+     * @param tasks the list of tasks.
+     * @param now   the current time.
+     */
+    public DueIndex(AbstractTaskList tasks, LocalDateTime now) {
+        if (now == null) {
+            throw new IllegalArgumentException("The time must be non-null.");
+        }
+        this.now = now;
+        heap = new Node[Math.max(tasks.size(), 1)];
+        for (Task task : tasks) {
+            if (task == null || nodes.containsKey(task)) {
+                continue;
+            }
+            Node x = new Node(task, sequence++);
+            nodes.put(task, x);
+            x.time = task.nextTimeAfter(now);
+            if (x.time != null) {
+                ensureCapacity(heapSize + 1);
+                x.index = heapSize;
+                heap[heapSize++] = x;
+            }
+        }
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Returns the current time of the index.
+     *
+     * @return the current time.
+     */
+    public LocalDateTime now() {
+        return now;
+    }
+
+    /**
+     * Returns the number of indexed tasks, including the tasks that have no
+     * next run.
+     *
+     * @return the number of indexed tasks.
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Returns true if the task is indexed.
+     *
+     * @param task the task.
+     * @return true if the task is indexed.
+     */
+    public boolean contains(Task task) {
+        return nodes.containsKey(task);
+    }
+
+    /**
+     * Returns the next run of the task known to the index.
+     *
+     * @param task the task.
+     * @return the time of the next run or null if the task is not indexed
+     * or has no next run.
+     */
+    public LocalDateTime nextTime(Task task) {
+        Node x = nodes.get(task);
+        return x == null ? null : x.time;
+    }
+
+    /**
+     * Adds a task to the index. An indexed task is updated.
+     *
+     * @param task the task.
+     */
+    public void add(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("The task cannot be null.");
+        }
+        Node x = nodes.get(task);
+        if (x == null) {
+            x = new Node(task, sequence++);
+            nodes.put(task, x);
+        }
+        reposition(x, task.nextTimeAfter(now));
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task the task.
+     * @return true if the task was indexed.
+     */
+    public boolean remove(Task task) {
+        Node x = nodes.remove(task);
+        if (x == null) {
+            return false;
+        }
+        reposition(x, null);
+        return true;
+    }
+
+    /**
+     * Moves the task after a change of its times or its status to its new
+     * next run after the current time of the index.
+     *
+     * @param task the changed task.
+     * @return true if the task is indexed.
+     */
+    public boolean update(Task task) {
+        Node x = nodes.get(task);
+        if (x == null) {
+            return false;
+        }
+        reposition(x, task.nextTimeAfter(now));
+        return true;
+    }
+
+    /**
+     * Returns up to n next runs in order of time without changing the
+     * index. Only the heap nodes that may be among the first n are visited,
+     * so the method takes O(n log n).
+     *
+     * @param n the maximum number of runs.
+     * @return the next runs as pairs of the time and the task.
+     */
+    public List<Map.Entry<LocalDateTime, Task>> peekNext(int n) {
+        List<Map.Entry<LocalDateTime, Task>> result = new ArrayList<>();
+        if (n <= 0 || heapSize == 0) {
+            return result;
+        }
+        PriorityQueue<Node> frontier = new PriorityQueue<>();
+        frontier.add(heap[0]);
+        while (result.size() < n && !frontier.isEmpty()) {
+            Node x = frontier.poll();
+            result.add(new AbstractMap.SimpleImmutableEntry<>(x.time,
+                    x.task));
+            for (int child = 2 * x.index + 1;
+                 child <= 2 * x.index + 2 && child < heapSize; child++) {
+                frontier.add(heap[child]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Moves the index to the specified time and returns every run no later
+     * than it in order of time. Every returned task is moved to its next
+     * run after the returned one, so a recurring task may be returned
+     * several times.
+     *
+     * @param time the new current time.
+     * @return the due runs as pairs of the time and the task.
+     */
+    public List<Map.Entry<LocalDateTime, Task>> pollDue(LocalDateTime time) {
+        List<Map.Entry<LocalDateTime, Task>> result = new ArrayList<>();
+        while (heapSize > 0 && !heap[0].time.isAfter(time)) {
+            Node x = heap[0];
+            result.add(new AbstractMap.SimpleImmutableEntry<>(x.time,
+                    x.task));
+            reposition(x, x.task.nextTimeAfter(x.time));
+        }
+        if (time.isAfter(now)) {
+            now = time;
+        }
+        return result;
+    }
+
+    /**
+     * Sets the next run of the node and moves it in the heap.
+     *
+     * @param x    the node.
+     * @param time the next run or null to take the node out of the heap.
+     */
+    private void reposition(Node x, LocalDateTime time) {
+        x.time = time;
+        if (x.index < 0) {
+            if (time != null) {
+                ensureCapacity(heapSize + 1);
+                x.index = heapSize;
+                heap[heapSize++] = x;
+                siftUp(x.index);
+            }
+            return;
+        }
+        int i = x.index;
+        if (time == null) {
+            Node last = heap[--heapSize];
+            heap[heapSize] = null;
+            x.index = -1;
+            if (last != x) {
+                last.index = i;
+                heap[i] = last;
+                siftDown(i);
+                siftUp(last.index);
+            }
+        } else {
+            siftDown(i);
+            siftUp(x.index);
+        }
+    }
+
+    private void siftUp(int i) {
+        Node x = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            Node p = heap[parent];
+            if (x.compareTo(p) >= 0) {
+                break;
+            }
+            heap[i] = p;
+            p.index = i;
+            i = parent;
+        }
+        heap[i] = x;
+        x.index = i;
+    }
+
+    private void siftDown(int i) {
+        Node x = heap[i];
+        int half = heapSize >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            Node c = heap[child];
+            if (child + 1 < heapSize && heap[child + 1].compareTo(c) < 0) {
+                c = heap[++child];
+            }
+            if (x.compareTo(c) <= 0) {
+                break;
+            }
+            heap[i] = c;
+            c.index = i;
+            i = child;
+        }
+        heap[i] = x;
+        x.index = i;
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > heap.length) {
+            heap = Arrays.copyOf(heap, minCapacity + (minCapacity / 2));
+        }
+    }
+
+    /**
+     * A task in the index.
+     */
+    private static class Node implements Comparable<Node> {
+        private final Task task;
+        private final long seq;
+
+        /**
+         * The next run of the task or null.
+         */
+        private LocalDateTime time;
+
+        /**
+         * The position of the node in the heap or -1.
+         */
+        private int index = -1;
+
+        Node(Task task, long seq) {
+            this.task = task;
+            this.seq = seq;
+        }
+
+        @Override
+        public int compareTo(Node o) {
+            int cmp = time.compareTo(o.time);
+            return cmp != 0 ? cmp : Long.compare(seq, o.seq);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package ua.edu.sumdu.j2se.kush.tasks;
+
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An executor that runs every firing of a task on its own thread.
+ * <p>Firings that block (for example on I/O) do not hold the threads of a
+ * fixed pool: a new thread is taken from the thread factory for every
+ * firing, and at most "max concurrency" firings run at the same time, the
+ * others wait for a permit. The executor is meant for cheap threads, such
+ * as the virtual threads of {@code Thread.ofVirtual().factory()} on newer
+ * Java versions; with platform threads every waiting firing holds a
+ * thread.</p>
+ * <p>The firings of one task passed to {@link #execute(Task, Runnable)}
+ * run one after another in the order they were passed, so the runs of a
+ * recurring task never overlap or overtake each other.
+ * {@link TaskScheduler} passes its firings this way.</p>
+ */
+public class FiringExecutor implements Executor {
+
+    /**
+     * The factory of the threads that run the firings.
+     */
+    private final ThreadFactory threadFactory;
+
+    /**
+     * The permits of running firings.
+     */
+    private final Semaphore permits;
+
+    /**
+     * The firings waiting for the running firing of the same task.
+     */
+    private final Map<Task, Queue<Runnable>> chains = new IdentityHashMap<>();
+
+    /**
+     * The number of firings passed and not finished yet.
+     */
+    private int pending;
+
+    /**
+     * This constructor specifies the threads and the concurrency.
+     *
+     * @param threadFactory  the factory of the threads.
+     * @param maxConcurrency the maximum number of firings run at once.
+     */
+    public FiringExecutor(ThreadFactory threadFactory, int maxConcurrency) {
+        if (threadFactory == null) {
+            throw new IllegalArgumentException("The thread factory "
+                    + "must be non-null.");
+        }
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("The maximum concurrency "
+                    + "must be > 0.");
+        }
+        this.threadFactory = threadFactory;
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    /**
+     * Runs the command on a new thread, without order guarantees.
+     *
+     * @param command the command.
+     */
+    @Override
+    public void execute(Runnable command) {
+        synchronized (this) {
+            pending++;
+        }
+        try {
+            start(() -> runFiring(command));
+        } catch (Throwable e) {
+            synchronized (this) {
+                finished(1);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Runs a firing of the task after the previous firings of the same
+     * task have finished.
+     *
+     * @param task    the fired task.
+     * @param command the firing.
+     */
+    public void execute(Task task, Runnable command) {
+        synchronized (this) {
+            pending++;
+            Queue<Runnable> chain = chains.get(task);
+            if (chain != null) {
+                chain.add(command);
+                return;
+            }
+            chains.put(task, new ArrayDeque<>());
+        }
+        try {
+            start(() -> drain(task, command));
+        } catch (Throwable e) {
+            // No thread drains the chain, so the firings queued meanwhile
+            // are dropped with this one.
+            synchronized (this) {
+                finished(1 + chains.remove(task).size());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the firing and then the firings queued behind it until the chain
+     * of the task is empty. The chain is removed in any case, so the later
+     * firings of the task start a new chain.
+     *
+     * @param task  the fired task.
+     * @param first the first firing.
+     */
+    private void drain(Task task, Runnable first) {
+        Runnable next = first;
+        try {
+            while (next != null) {
+                runFiring(next);
+                synchronized (this) {
+                    next = chains.get(task).poll();
+                    if (next == null) {
+                        chains.remove(task);
+                    }
+                }
+            }
+        } finally {
+            if (next != null) {
+                synchronized (this) {
+                    finished(chains.remove(task).size());
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits until every passed firing has finished.
+     *
+     * @param timeout the maximum time to wait.
+     * @param unit    the unit of the timeout.
+     * @return true if there are no pending firings.
+     * @throws InterruptedException if the current thread is interrupted.
+     */
+    public synchronized boolean awaitIdle(long timeout, TimeUnit unit)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (pending > 0) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, left);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of firings passed and not finished yet.
+     *
+     * @return the number of pending firings.
+     */
+    public synchronized int pending() {
+        return pending;
+    }
+
+    private void start(Runnable body) {
+        Thread thread = threadFactory.newThread(body);
+        if (thread == null) {
+            throw new IllegalStateException("The thread factory has not "
+                    + "created a thread.");
+        }
+        thread.start();
+    }
+
+    /**
+     * Runs a firing with a permit. An exception or error of the firing goes
+     * to the uncaught exception handler of the thread and does not stop the
+     * following firings of the task.
+     *
+     * @param command the firing.
+     */
+    private void runFiring(Runnable command) {
+        permits.acquireUninterruptibly();
+        try {
+            command.run();
+        } catch (Throwable e) {
+            report(e);
+        } finally {
+            permits.release();
+            synchronized (this) {
+                finished(1);
+            }
+        }
+    }
+
+    /**
+     * Passes a throwable of a firing to the uncaught exception handler of
+     * the current thread. A throwable of the handler itself is dropped, so
+     * it cannot stop the following firings.
+     *
+     * @param e the throwable.
+     */
+    static void report(Throwable e) {
+        Thread thread = Thread.currentThread();
+        try {
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        } catch (Throwable ignored) {
+            // nothing else can be done with it
+        }
+    }
+
+    /**
+     * Counts the firings as finished. Must be called with the lock held.
+     *
+     * @param firings the number of finished firings.
+     */
+    private void finished(int firings) {
+        pending -= firings;
+        if (pending == 0) {
+            notifyAll();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package ua.edu.sumdu.j2se.kush.tasks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * A period when no task runs.
+ *
+ * @see Tasks#freeSlots(Iterable, LocalDateTime, LocalDateTime, Duration,
+ * Duration)
+ */
+public class FreeSlot {
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    /**
+     * This constructor defines a free period.
+     *
+     * @param start the start time of the period.
+     * @param end   the end time of the period.
+     */
+    FreeSlot(LocalDateTime start, LocalDateTime end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Returns the start time of the free period, the end of the previous
+     * run or the start of the searched period.
+     *
+     * @return the start time.
+     */
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the end time of the free period, the time of the next run or
+     * the end of the searched period.
+     *
+     * @return the end time.
+     */
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    /**
+     * Returns the length of the free period.
+     *
+     * @return the length.
+     */
+    public Duration getDuration() {
+        return Duration.between(start, end);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FreeSlot)) return false;
+        FreeSlot slot = (FreeSlot) o;
+        return start.equals(slot.start) && end.equals(slot.end);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return "FreeSlot{"
+                + "start=" + start
+                + ", end=" + end
+                + '}';
+    }
+}
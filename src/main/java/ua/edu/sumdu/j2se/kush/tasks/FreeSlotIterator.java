@@ -0,0 +1,116 @@
+package ua.edu.sumdu.j2se.kush.tasks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * An iterator over the free periods between the runs of tasks.
+ * <p>The runs are taken one by one from an {@link OccurrenceIterator}, so
+ * the iterator keeps one cursor per task however long the searched period
+ * is, and runs after the last returned period are not looked at. Every run
+ * keeps its task busy for the duration of the tasks; a free period is a
+ * gap of at least the minimum length between the busy periods.</p>
+ *
+ * @see Tasks#freeSlots(Iterable, LocalDateTime, LocalDateTime, Duration,
+ * Duration)
+ */
+class FreeSlotIterator implements Iterator<FreeSlot> {
+
+    /**
+     * The runs that may keep the searched period busy.
+     */
+    private final Iterator<Map.Entry<LocalDateTime, Task>> runs;
+
+    /**
+     * The end of the searched period.
+     */
+    private final LocalDateTime end;
+
+    /**
+     * The minimum length of a free period.
+     */
+    private final Duration minLength;
+
+    /**
+     * The time a task is busy after its run.
+     */
+    private final Duration duration;
+
+    /**
+     * The start of the current free period, or null when the search is
+     * over.
+     */
+    private LocalDateTime free;
+
+    /**
+     * The next free period, or null if it has not been found yet.
+     */
+    private FreeSlot next;
+
+    /**
+     * This constructor starts the search.
+     *
+     * @param tasks     collection of tasks.
+     * @param start     the start time of the period.
+     * @param end       the end time of the period.
+     * @param minLength the minimum length of a free period.
+     * @param duration  the time a task is busy after its run.
+     */
+    FreeSlotIterator(Iterable<Task> tasks, LocalDateTime start,
+                     LocalDateTime end, Duration minLength,
+                     Duration duration) {
+        if (minLength == null || minLength.isNegative()
+                || minLength.isZero()) {
+            throw new IllegalArgumentException("The minimum length "
+                    + "must be > 0.");
+        }
+        if (duration == null || duration.isNegative()) {
+            throw new IllegalArgumentException("The duration must be >= 0.");
+        }
+        // A run before "start" is still busy at "start" if it is less than
+        // the duration earlier.
+        this.runs = new OccurrenceIterator(tasks, start.minus(duration), end);
+        this.end = end;
+        this.minLength = minLength;
+        this.duration = duration;
+        this.free = start;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null && free != null) {
+            if (!runs.hasNext()) {
+                if (!free.plus(minLength).isAfter(end)) {
+                    next = new FreeSlot(free, end);
+                }
+                free = null;
+                break;
+            }
+            LocalDateTime run = runs.next().getKey();
+            if (!free.plus(minLength).isAfter(run)) {
+                next = new FreeSlot(free, run);
+            }
+            LocalDateTime busy = run.plus(duration);
+            if (busy.isAfter(free)) {
+                free = busy;
+            }
+            if (!free.isBefore(end)) {
+                free = null;
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public FreeSlot next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        FreeSlot result = next;
+        next = null;
+        return result;
+    }
+}
@@ -0,0 +1,419 @@
+package ua.edu.sumdu.j2se.kush.tasks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * A list of tasks based on an array and indexed by an augmented interval
+ * tree.
+ * <p>Every task is stored in the tree by its
+ * [{@link Task#getStartTime()}, {@link Task#getEndTime()}] span, so
+ * {@link #incoming(LocalDateTime, LocalDateTime)} visits only the tasks
+ * whose span overlaps the requested period instead of scanning the whole
+ * list.</p>
+ * <p>The span of a task is captured when the task is added. If the times of
+ * a task are changed while it is in this list, the task must be removed and
+ * added again, otherwise the index will not see the change.</p>
+ */
+public class IndexedTaskList extends AbstractTaskList implements Cloneable {
+
+    /**
+     * An array to store added tasks in the order of addition.
+     */
+    private Task[] list;
+
+    /**
+     * Tree nodes of the tasks, {@code nodes[i]} belongs to {@code list[i]}.
+     */
+    private Node[] nodes;
+
+    /**
+     * The root of the interval tree.
+     */
+    private Node root;
+
+    /**
+     * Sequence number of the next added node, it makes tree keys unique.
+     */
+    private long sequence;
+
+    /**
+     * Source of the node priorities.
+     */
+    private Random random = new Random();
+
+    /**
+     * This constructor is to create an empty list.
+     */
+    public IndexedTaskList() {
+        list = new Task[]{};
+        nodes = new Node[]{};
+    }
+
+    @Override
+    public ListTypes.types getListType() {
+        return ListTypes.types.INDEXED;
+    }
+
+    @Override
+    public Task getTask(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index
+                    + ", size: " + size);
+        }
+        return list[index];
+    }
+
+    @Override
+    public void add(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("The task cannot be null.");
+        }
+        if (size == list.length) {
+            int newCapacity = size + 1 + ((size + 1) / 2);
+            list = Arrays.copyOf(list, newCapacity);
+            nodes = Arrays.copyOf(nodes, newCapacity);
+        }
+        task = intern(task);
+        Node x = new Node(task, sequence++, random.nextInt());
+        list[size] = task;
+        nodes[size] = x;
+        taskAdded(task);
+        size++;
+        root = insert(root, x);
+    }
+
+    @Override
+    public boolean remove(Task task) {
+        int index = indexOf(task);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * Removes the task at specified position from this list and the index.
+     *
+     * @param index position of the task to remove.
+     */
+    private void removeAt(int index) {
+        taskRemoved(list[index]);
+        root = delete(root, nodes[index]);
+
+        int numberOfTasksToShift = size - index - 1;
+        if (numberOfTasksToShift > 0) {
+            System.arraycopy(list, index + 1, list, index,
+                    numberOfTasksToShift);
+            System.arraycopy(nodes, index + 1, nodes, index,
+                    numberOfTasksToShift);
+        }
+        size--;
+        list[size] = null;
+        nodes[size] = null;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified task, if the
+     * task is in this list, otherwise -1.
+     *
+     * @param task task
+     * @return index of the task or -1.
+     */
+    public int indexOf(Task task) {
+        if (task == null) {
+            return -1;
+        }
+        for (int i = 0; i < size; i++) {
+            if (task.equals(list[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the tasks of this list that can be run at least once after
+     * "start" and no later than "end".
+     * <p>Only the tasks whose span overlaps the period are checked with
+     * {@link Task#nextTimeAfter(LocalDateTime)}. The tasks are returned in
+     * order of their start time.</p>
+     *
+     * @param start time range start time.
+     * @param end   time range end time.
+     * @return the tasks that run during the period.
+     */
+    public List<Task> incoming(LocalDateTime start, LocalDateTime end) {
+        List<Node> found = new ArrayList<>();
+        collect(root, start, end, found);
+        return tasksOf(found);
+    }
+
+    /**
+     * Returns the tasks of this list that can be run at least once after
+     * "start" and no later than "end" in the order of this list, like
+     * {@link #incoming(LocalDateTime, LocalDateTime)} does in order of
+     * their start time.
+     *
+     * @param start time range start time.
+     * @param end   time range end time.
+     * @return the tasks that run during the period.
+     */
+    List<Task> incomingInOrder(LocalDateTime start, LocalDateTime end) {
+        List<Node> found = new ArrayList<>();
+        collect(root, start, end, found);
+        // The nodes are numbered in the order of addition, and removals
+        // keep the order of the rest.
+        found.sort(Comparator.comparingLong(x -> x.seq));
+        return tasksOf(found);
+    }
+
+    private static List<Task> tasksOf(List<Node> nodes) {
+        List<Task> result = new ArrayList<>(nodes.size());
+        for (Node x : nodes) {
+            result.add(x.task);
+        }
+        return result;
+    }
+
+    /**
+     * Collects the nodes of the subtree whose tasks run in (start, end].
+     *
+     * @param x      the root of the subtree.
+     * @param start  time range start time.
+     * @param end    time range end time.
+     * @param result the list to add the found nodes to.
+     */
+    private static void collect(Node x, LocalDateTime start,
+                                LocalDateTime end, List<Node> result) {
+        while (x != null && x.maxEnd.isAfter(start)) {
+            collect(x.left, start, end, result);
+            if (x.start.isAfter(end)) {
+                // The right subtree starts even later.
+                return;
+            }
+            if (x.end.isAfter(start)) {
+                LocalDateTime next = x.task.nextTimeAfter(start);
+                if (next != null && !next.isAfter(end)) {
+                    result.add(x);
+                }
+            }
+            x = x.right;
+        }
+    }
+
+    /**
+     * Inserts the node into the subtree.
+     *
+     * @param t the root of the subtree.
+     * @param x the node to insert.
+     * @return the new root of the subtree.
+     */
+    private static Node insert(Node t, Node x) {
+        if (t == null) {
+            return x;
+        }
+        if (x.priority > t.priority) {
+            Node[] halves = split(t, x);
+            x.left = halves[0];
+            x.right = halves[1];
+            x.update();
+            return x;
+        }
+        if (x.compareTo(t) < 0) {
+            t.left = insert(t.left, x);
+        } else {
+            t.right = insert(t.right, x);
+        }
+        t.update();
+        return t;
+    }
+
+    /**
+     * Deletes the node from the subtree.
+     *
+     * @param t the root of the subtree.
+     * @param x the node to delete.
+     * @return the new root of the subtree.
+     */
+    private static Node delete(Node t, Node x) {
+        if (t == null) {
+            return null;
+        }
+        if (t == x) {
+            Node merged = merge(t.left, t.right);
+            t.left = t.right = null;
+            return merged;
+        }
+        if (x.compareTo(t) < 0) {
+            t.left = delete(t.left, x);
+        } else {
+            t.right = delete(t.right, x);
+        }
+        t.update();
+        return t;
+    }
+
+    /**
+     * Splits the subtree into the nodes less than the key and the rest.
+     *
+     * @param t   the root of the subtree.
+     * @param key the node to split by.
+     * @return the roots of the two parts.
+     */
+    private static Node[] split(Node t, Node key) {
+        if (t == null) {
+            return new Node[2];
+        }
+        Node[] halves;
+        if (t.compareTo(key) < 0) {
+            halves = split(t.right, key);
+            t.right = halves[0];
+            halves[0] = t;
+        } else {
+            halves = split(t.left, key);
+            t.left = halves[1];
+            halves[1] = t;
+        }
+        t.update();
+        return halves;
+    }
+
+    /**
+     * Merges two subtrees, all keys of the first are less than the keys of
+     * the second.
+     *
+     * @param a the left subtree.
+     * @param b the right subtree.
+     * @return the root of the merged tree.
+     */
+    private static Node merge(Node a, Node b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            a.update();
+            return a;
+        }
+        b.left = merge(a, b.left);
+        b.update();
+        return b;
+    }
+
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<Task>() {
+            private int cursor;
+            private int lastRet = -1;
+
+            @Override
+            public boolean hasNext() {
+                return cursor != size;
+            }
+
+            @Override
+            public Task next() {
+                if (cursor >= size) {
+                    throw new NoSuchElementException();
+                }
+                lastRet = cursor++;
+                return list[lastRet];
+            }
+
+            @Override
+            public void remove() {
+                if (lastRet < 0) {
+                    throw new IllegalStateException(
+                            "Method remove() should be called after next()");
+                }
+                removeAt(lastRet);
+                cursor = lastRet;
+                lastRet = -1;
+            }
+        };
+    }
+
+    @Override
+    public IndexedTaskList clone() {
+        try {
+            IndexedTaskList clone = (IndexedTaskList) super.clone();
+            clone.list = new Task[size];
+            clone.nodes = new Node[size];
+            clone.size = 0;
+            clone.clearCounted();
+            clone.root = null;
+            clone.random = new Random();
+            for (Task task : this) {
+                clone.add(task.clone());
+            }
+            return clone;
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public Stream<Task> getStream() {
+        return Arrays.stream(list, 0, size);
+    }
+
+    @Override
+    public String toString() {
+        return "IndexedTaskList" + super.toString();
+    }
+
+    /**
+     * A node of the interval tree (a treap ordered by the start time).
+     */
+    private static class Node implements Comparable<Node> {
+        private final Task task;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final long seq;
+        private final int priority;
+
+        /**
+         * The latest end time in the subtree of this node.
+         */
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(Task task, long seq, int priority) {
+            this.task = task;
+            this.start = task.getStartTime();
+            this.end = task.getEndTime();
+            this.seq = seq;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+
+        void update() {
+            maxEnd = end;
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+        }
+
+        @Override
+        public int compareTo(Node o) {
+            int cmp = start.compareTo(o.start);
+            return cmp != 0 ? cmp : Long.compare(seq, o.seq);
+        }
+    }
+}
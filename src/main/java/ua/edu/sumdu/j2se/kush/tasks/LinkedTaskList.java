@@ -1,7 +1,10 @@
 package ua.edu.sumdu.j2se.kush.tasks;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A list of tasks based on a linked list.
@@ -60,7 +63,7 @@ public class LinkedTaskList extends AbstractTaskList implements Cloneable {
             throw new IllegalArgumentException("The task cannot be null.");
         }
 
-        Node x = new Node(task);
+        Node x = new Node(intern(task));
 
         if (first == null) {
             first = x;
@@ -70,6 +73,7 @@ public class LinkedTaskList extends AbstractTaskList implements Cloneable {
             last.next = x;
             last = x;
         }
+        taskAdded(x.element);
         size++;
     }
 
@@ -91,6 +95,29 @@ public class LinkedTaskList extends AbstractTaskList implements Cloneable {
         return false;
     }
 
+    /**
+     * Removes all tasks of this list that satisfy the given predicate in one
+     * walk over the nodes.
+     *
+     * @param filter a predicate which returns true for tasks to be removed.
+     * @return true if any tasks were removed.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Task> filter) {
+        Objects.requireNonNull(filter);
+        boolean removed = false;
+        Node x = first;
+        while (x != null) {
+            Node next = x.next;
+            if (filter.test(x.element)) {
+                unlink(x);
+                removed = true;
+            }
+            x = next;
+        }
+        return removed;
+    }
+
     /**
      * Removes (unbinds) the specified node from this list.
      *
@@ -114,6 +141,7 @@ public class LinkedTaskList extends AbstractTaskList implements Cloneable {
             x.next = null;
         }
         size--;
+        taskRemoved(x.element);
     }
 
     @Override
@@ -157,6 +185,7 @@ public class LinkedTaskList extends AbstractTaskList implements Cloneable {
         try {
             LinkedTaskList clone = (LinkedTaskList) super.clone();
             clone.size = 0;
+            clone.clearCounted();
             clone.first = clone.last = null;
             for (Task task : this) {
                 clone.add(task.clone());
@@ -167,13 +196,21 @@ public class LinkedTaskList extends AbstractTaskList implements Cloneable {
         }
     }
 
+    /**
+     * Returns a spliterator that knows the exact number of tasks it covers
+     * and splits the list in halves, so parallel streams can divide the work
+     * evenly.
+     *
+     * @return a spliterator over the tasks of this list.
+     */
+    @Override
+    public Spliterator<Task> spliterator() {
+        return new NodeSpliterator(first, size);
+    }
+
     @Override
     public Stream<Task> getStream() {
-        List<Task> list = new ArrayList<>();
-        for (Task task : this) {
-            list.add(task);
-        }
-        return list.stream();
+        return StreamSupport.stream(spliterator(), false);
     }
 
     @Override
@@ -181,6 +218,72 @@ public class LinkedTaskList extends AbstractTaskList implements Cloneable {
         return "LinkedTaskList" + super.toString();
     }
 
+    /**
+     * A spliterator over a run of nodes of known length.
+     */
+    private static class NodeSpliterator implements Spliterator<Task> {
+        private Node current;
+        private int remaining;
+
+        NodeSpliterator(Node current, int remaining) {
+            this.current = current;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Task> action) {
+            if (remaining <= 0) {
+                return false;
+            }
+            Task task = current.element;
+            current = current.next;
+            remaining--;
+            action.accept(task);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Task> action) {
+            Node x = current;
+            for (int i = remaining; i > 0; i--) {
+                action.accept(x.element);
+                x = x.next;
+            }
+            current = x;
+            remaining = 0;
+        }
+
+        /**
+         * Gives the first half of the remaining nodes to a new spliterator.
+         *
+         * @return the spliterator over the first half or null if there is
+         * nothing to split.
+         */
+        @Override
+        public Spliterator<Task> trySplit() {
+            if (remaining < 2) {
+                return null;
+            }
+            int half = remaining >>> 1;
+            Spliterator<Task> prefix = new NodeSpliterator(current, half);
+            for (int i = 0; i < half; i++) {
+                current = current.next;
+            }
+            remaining -= half;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL;
+        }
+    }
+
     private static class Node {
         private final Task element;
         private Node next;
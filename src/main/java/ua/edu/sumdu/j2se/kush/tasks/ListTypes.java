@@ -5,8 +5,17 @@ package ua.edu.sumdu.j2se.kush.tasks;
  * <ul>
  * <li>ARRAY is for array-based lists.</li>
  * <li>LINKED is for lists based on a linked list.</li>
+ * <li>INDEXED is for array-based lists indexed by an interval tree.</li>
+ * <li>COLUMNAR is for lists that store tasks in primitive columns.</li>
+ * <li>OFF_HEAP is for lists that store tasks outside of the Java heap.</li>
+ * <li>UNROLLED is for lists based on a linked list of task chunks.</li>
+ * <li>CONCURRENT is for thread-safe array-based lists.</li>
+ * <li>PERSISTENT is for lists based on a persistent vector trie.</li>
  * </ul>
  */
 public class ListTypes {
-    public enum types {ARRAY, LINKED}
+    public enum types {
+        ARRAY, LINKED, INDEXED, COLUMNAR, OFF_HEAP, UNROLLED, CONCURRENT,
+        PERSISTENT
+    }
 }
@@ -0,0 +1,111 @@
+package ua.edu.sumdu.j2se.kush.tasks;
+
+import java.time.LocalDateTime;
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * An iterator over the runs of tasks during a period in order of time.
+ * <p>Every task that runs during the period has a cursor in a priority
+ * queue ordered by the next time of the task. {@link #next()} takes the
+ * earliest cursor, returns its run and moves the cursor one interval
+ * forward. So the iterator holds one cursor per task that still runs, not
+ * the runs themselves. Runs at the same time are returned in the order of
+ * the tasks in the source.</p>
+ *
+ * @see Tasks#occurrences(Iterable, LocalDateTime, LocalDateTime)
+ */
+class OccurrenceIterator implements Iterator<Map.Entry<LocalDateTime, Task>> {
+
+    /**
+     * Cursors of the tasks that have runs left.
+     */
+    private final PriorityQueue<Cursor> queue = new PriorityQueue<>();
+
+    /**
+     * This constructor finds the first run of every task in (start, end].
+     *
+     * @param tasks collection of tasks.
+     * @param start the start time of the period.
+     * @param end   the end time of the period.
+     */
+    OccurrenceIterator(Iterable<Task> tasks, LocalDateTime start,
+                       LocalDateTime end) {
+        int order = 0;
+        for (Task task : Tasks.candidates(tasks, start, end)) {
+            if (task == null) {
+                continue;
+            }
+            LocalDateTime next = task.nextTimeAfter(start);
+            if (next != null && !next.isAfter(end)) {
+                Cursor cursor = new Cursor(task, next, order);
+                if (task.isRepeated()) {
+                    cursor.interval = task.getRepeatInterval();
+                    cursor.last = task.getEndTime().isBefore(end)
+                            ? task.getEndTime() : end;
+                }
+                queue.add(cursor);
+            }
+            order++;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !queue.isEmpty();
+    }
+
+    @Override
+    public Map.Entry<LocalDateTime, Task> next() {
+        Cursor cursor = queue.poll();
+        if (cursor == null) {
+            throw new NoSuchElementException();
+        }
+        Map.Entry<LocalDateTime, Task> result =
+                new AbstractMap.SimpleImmutableEntry<>(cursor.time,
+                        cursor.task);
+        if (cursor.interval > 0) {
+            // The runs of a recurring task are the interval apart.
+            LocalDateTime next = cursor.time.plusSeconds(cursor.interval);
+            if (!next.isAfter(cursor.last)) {
+                cursor.time = next;
+                queue.add(cursor);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The next run of a task.
+     */
+    private static class Cursor implements Comparable<Cursor> {
+        private final Task task;
+        private final int order;
+        private LocalDateTime time;
+
+        /**
+         * The interval of a recurring task, 0 for a non-recurring one.
+         */
+        private int interval;
+
+        /**
+         * The latest time of a run of a recurring task in the period.
+         */
+        private LocalDateTime last;
+
+        Cursor(Task task, LocalDateTime time, int order) {
+            this.task = task;
+            this.time = time;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(Cursor o) {
+            int cmp = time.compareTo(o.time);
+            return cmp != 0 ? cmp : Integer.compare(order, o.order);
+        }
+    }
+}
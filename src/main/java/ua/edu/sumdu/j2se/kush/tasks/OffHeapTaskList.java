@@ -0,0 +1,476 @@
+package ua.edu.sumdu.j2se.kush.tasks;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A list of tasks stored outside of the Java heap.
+ * <p>Every task is written as a fixed-width record into direct
+ * {@link ByteBuffer}s, the titles are written as UTF-8 bytes into another
+ * direct buffer (the title arena). The records are split into segments of
+ * {@link #SEGMENT_RECORDS} records, so the list is not limited by the
+ * 2 GB of one buffer and a full segment is never copied again. The heap
+ * holds only the buffers, so the number of tasks does not affect the work
+ * of the garbage collector.
+ * {@link #getTask(int)}, {@link #iterator()} and {@link #getStream()} build
+ * a new {@link Task} for every returned element.</p>
+ * <p>The list must be closed with {@link #close()} when it is no longer
+ * needed. After that any access to the list throws
+ * {@link IllegalStateException}.</p>
+ */
+public class OffHeapTaskList extends AbstractTaskList
+        implements Cloneable, AutoCloseable {
+
+    /**
+     * Offsets of the fields in a record.
+     */
+    private static final int START_SECONDS = 0;
+    private static final int END_SECONDS = 8;
+    private static final int START_NANOS = 16;
+    private static final int END_NANOS = 20;
+    private static final int INTERVAL = 24;
+    private static final int TITLE_OFFSET = 28;
+    private static final int TITLE_LENGTH = 32;
+    private static final int FLAGS = 36;
+
+    /**
+     * The size of a record in bytes.
+     */
+    private static final int RECORD_SIZE = 40;
+
+    /**
+     * The number of records of a full segment.
+     */
+    private static final int SEGMENT_BITS = 20;
+    private static final int SEGMENT_RECORDS = 1 << SEGMENT_BITS;
+    private static final int SEGMENT_MASK = SEGMENT_RECORDS - 1;
+
+    /**
+     * The largest capacity of the title arena.
+     */
+    private static final int MAX_TITLES = Integer.MAX_VALUE - 8;
+
+    private static final byte ACTIVE = 1;
+    private static final byte REPEATED = 2;
+    private static final byte NULL_TITLE = 4;
+
+    /**
+     * The records of the tasks: record i is in segment
+     * {@code i >>> SEGMENT_BITS}. Only the last segment may be shorter than
+     * {@link #SEGMENT_RECORDS} records.
+     */
+    private ByteBuffer[] records;
+
+    /**
+     * The titles of the tasks.
+     */
+    private ByteBuffer titles;
+
+    /**
+     * The number of used bytes of {@link #titles}.
+     */
+    private int titlesEnd;
+
+    /**
+     * The number of bytes of {@link #titles} that belong to removed tasks.
+     */
+    private int titlesGarbage;
+
+    /**
+     * This constructor is to create an empty list.
+     */
+    public OffHeapTaskList() {
+        this(16);
+    }
+
+    /**
+     * This constructor specifies the initial capacity.
+     *
+     * @param initialCapacity this list capacity
+     */
+    public OffHeapTaskList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new NegativeArraySizeException("Capacity must be a "
+                    + "positive number.");
+        }
+        int full = initialCapacity >>> SEGMENT_BITS;
+        int rest = initialCapacity & SEGMENT_MASK;
+        records = new ByteBuffer[Math.max(1, full + (rest > 0 ? 1 : 0))];
+        for (int i = 0; i < full; i++) {
+            records[i] = ByteBuffer.allocateDirect(
+                    SEGMENT_RECORDS * RECORD_SIZE);
+        }
+        if (full == 0 || rest > 0) {
+            records[full] = ByteBuffer.allocateDirect(rest * RECORD_SIZE);
+        }
+        titles = ByteBuffer.allocateDirect(
+                (int) Math.min(MAX_TITLES, initialCapacity * 16L));
+    }
+
+    @Override
+    public ListTypes.types getListType() {
+        return ListTypes.types.OFF_HEAP;
+    }
+
+    /**
+     * Releases the memory of this list. The memory is returned to the system
+     * once the buffers are collected.
+     */
+    @Override
+    public void close() {
+        records = null;
+        titles = null;
+        modified();
+        size = 0;
+    }
+
+    /**
+     * Returns true if this list has been closed.
+     *
+     * @return true if this list has been closed.
+     */
+    public boolean isClosed() {
+        return records == null;
+    }
+
+    /**
+     * Returns the segment that holds the specified record.
+     */
+    private ByteBuffer segment(int index) {
+        return records[index >>> SEGMENT_BITS];
+    }
+
+    /**
+     * Returns the position of the specified record in its segment.
+     */
+    private static int offset(int index) {
+        return (index & SEGMENT_MASK) * RECORD_SIZE;
+    }
+
+    private void ensureOpen() {
+        if (records == null) {
+            throw new IllegalStateException("The list is closed.");
+        }
+    }
+
+    @Override
+    public Task getTask(int index) {
+        ensureOpen();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index
+                    + ", size: " + size);
+        }
+        return read(index);
+    }
+
+    @Override
+    public void add(Task task) {
+        ensureOpen();
+        if (task == null) {
+            throw new IllegalArgumentException("The task cannot be null.");
+        }
+        byte[] title = task.getTitle() == null
+                ? new byte[0]
+                : task.getTitle().getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(title.length);
+
+        LocalDateTime start = task.getStartTime();
+        LocalDateTime end = task.getEndTime();
+        ByteBuffer records = segment(size);
+        int offset = offset(size);
+        records.putLong(offset + START_SECONDS,
+                start.toEpochSecond(ZoneOffset.UTC));
+        records.putLong(offset + END_SECONDS,
+                end.toEpochSecond(ZoneOffset.UTC));
+        records.putInt(offset + START_NANOS, start.getNano());
+        records.putInt(offset + END_NANOS, end.getNano());
+        records.putInt(offset + INTERVAL, task.getRepeatInterval());
+        records.putInt(offset + TITLE_OFFSET, titlesEnd);
+        records.putInt(offset + TITLE_LENGTH, title.length);
+        records.put(offset + FLAGS, (byte) ((task.isActive() ? ACTIVE : 0)
+                | (task.isRepeated() ? REPEATED : 0)
+                | (task.getTitle() == null ? NULL_TITLE : 0)));
+
+        ByteBuffer arena = titles.duplicate();
+        arena.position(titlesEnd);
+        arena.put(title);
+        titlesEnd += title.length;
+        modified();
+        size++;
+    }
+
+    /**
+     * Makes sure the buffers can hold one more record and the specified
+     * number of additional title bytes.
+     *
+     * @param titleLength the number of title bytes to be added.
+     * @throws IllegalStateException if the list or the title arena is full.
+     */
+    private void ensureCapacity(int titleLength) {
+        if (size == Integer.MAX_VALUE) {
+            throw new IllegalStateException("The list is full.");
+        }
+        long minTitles = (long) titlesEnd + titleLength;
+        if (minTitles > titles.capacity()) {
+            if (titlesGarbage > titlesEnd / 2) {
+                compactTitles();
+                minTitles = (long) titlesEnd + titleLength;
+            }
+            if (minTitles > MAX_TITLES) {
+                throw new IllegalStateException("The titles cannot take "
+                        + "more than " + MAX_TITLES + " bytes.");
+            }
+            if (minTitles > titles.capacity()) {
+                titles = copy(titles, titlesEnd,
+                        (int) Math.min(MAX_TITLES, minTitles + minTitles / 2));
+            }
+        }
+
+        int segment = size >>> SEGMENT_BITS;
+        if (segment == records.length) {
+            records = Arrays.copyOf(records, segment + 1);
+            records[segment] = ByteBuffer.allocateDirect(
+                    SEGMENT_RECORDS * RECORD_SIZE);
+        } else if (offset(size) + RECORD_SIZE > records[segment].capacity()) {
+            int local = (size & SEGMENT_MASK) + 1;
+            int newCapacity = Math.min(SEGMENT_RECORDS, local + local / 2);
+            records[segment] = copy(records[segment], offset(size),
+                    newCapacity * RECORD_SIZE);
+        }
+    }
+
+    private static ByteBuffer copy(ByteBuffer source, int length,
+                                   int capacity) {
+        ByteBuffer target = ByteBuffer.allocateDirect(capacity);
+        ByteBuffer slice = source.duplicate();
+        slice.position(0).limit(length);
+        target.put(slice);
+        target.clear();
+        return target;
+    }
+
+    /**
+     * Rewrites the title arena without the titles of removed tasks.
+     */
+    private void compactTitles() {
+        ByteBuffer compacted = ByteBuffer.allocateDirect(titles.capacity());
+        int end = 0;
+        for (int i = 0; i < size; i++) {
+            ByteBuffer records = segment(i);
+            int offset = offset(i);
+            int from = records.getInt(offset + TITLE_OFFSET);
+            int length = records.getInt(offset + TITLE_LENGTH);
+            for (int j = 0; j < length; j++) {
+                compacted.put(end + j, titles.get(from + j));
+            }
+            records.putInt(offset + TITLE_OFFSET, end);
+            end += length;
+        }
+        titles = compacted;
+        titlesEnd = end;
+        titlesGarbage = 0;
+    }
+
+    @Override
+    public boolean remove(Task task) {
+        ensureOpen();
+        int index = indexOf(task);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * Removes the task at specified position: the following records are
+     * shifted within every segment, and the first record of the next
+     * segment moves to the end of the previous one.
+     *
+     * @param index position of the task to remove.
+     */
+    private void removeAt(int index) {
+        titlesGarbage += segment(index).getInt(offset(index) + TITLE_LENGTH);
+        for (int i = index; i < size - 1; ) {
+            int last = Math.min(size - 1, i | SEGMENT_MASK);
+            ByteBuffer target = segment(i).duplicate();
+            target.position(offset(i));
+            if (last > i) {
+                ByteBuffer tail = segment(i).duplicate();
+                tail.position(offset(i + 1))
+                        .limit(offset(last) + RECORD_SIZE);
+                target.put(tail);
+            }
+            if (last < size - 1) {
+                ByteBuffer next = segment(last + 1).duplicate();
+                next.position(0).limit(RECORD_SIZE);
+                target.put(next);
+            }
+            i = last + 1;
+        }
+        modified();
+        size--;
+    }
+
+    /**
+     * Returns the index of the first task with the same state as the
+     * specified task, if there is such task in this list, otherwise -1.
+     *
+     * @param task task
+     * @return index of the task or -1.
+     */
+    public int indexOf(Task task) {
+        ensureOpen();
+        if (task == null) {
+            return -1;
+        }
+        LocalDateTime start = task.getStartTime();
+        LocalDateTime end = task.getEndTime();
+        long start0 = start.toEpochSecond(ZoneOffset.UTC);
+        long end0 = end.toEpochSecond(ZoneOffset.UTC);
+        byte flags = (byte) ((task.isActive() ? ACTIVE : 0)
+                | (task.isRepeated() ? REPEATED : 0)
+                | (task.getTitle() == null ? NULL_TITLE : 0));
+        for (int i = 0; i < size; i++) {
+            ByteBuffer records = segment(i);
+            int offset = offset(i);
+            if (records.getLong(offset + START_SECONDS) == start0
+                    && records.getLong(offset + END_SECONDS) == end0
+                    && records.getInt(offset + START_NANOS) == start.getNano()
+                    && records.getInt(offset + END_NANOS) == end.getNano()
+                    && records.getInt(offset + INTERVAL)
+                    == task.getRepeatInterval()
+                    && records.get(offset + FLAGS) == flags
+                    && Objects.equals(readTitle(i),
+                    task.getTitle())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads the title of the task in the specified record.
+     *
+     * @param index the record.
+     * @return the title.
+     */
+    private String readTitle(int index) {
+        ByteBuffer records = segment(index);
+        int offset = offset(index);
+        if ((records.get(offset + FLAGS) & NULL_TITLE) != 0) {
+            return null;
+        }
+        byte[] bytes = new byte[records.getInt(offset + TITLE_LENGTH)];
+        ByteBuffer slice = titles.duplicate();
+        slice.position(records.getInt(offset + TITLE_OFFSET));
+        slice.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Builds a task from the specified record.
+     *
+     * @param index the record.
+     * @return a new task.
+     */
+    private Task read(int index) {
+        ByteBuffer records = segment(index);
+        int offset = offset(index);
+        String title = readTitle(index);
+        byte flags = records.get(offset + FLAGS);
+        LocalDateTime start = LocalDateTime.ofEpochSecond(
+                records.getLong(offset + START_SECONDS),
+                records.getInt(offset + START_NANOS), ZoneOffset.UTC);
+        Task task;
+        if ((flags & REPEATED) != 0) {
+            task = new Task(title == null ? "" : title, start,
+                    LocalDateTime.ofEpochSecond(
+                            records.getLong(offset + END_SECONDS),
+                            records.getInt(offset + END_NANOS),
+                            ZoneOffset.UTC),
+                    records.getInt(offset + INTERVAL));
+        } else {
+            task = new Task(title == null ? "" : title, start);
+        }
+        task.setTitle(title);
+        task.setActive((flags & ACTIVE) != 0);
+        return task;
+    }
+
+    @Override
+    public Iterator<Task> iterator() {
+        ensureOpen();
+        return new Iterator<Task>() {
+            private int cursor;
+            private int lastRet = -1;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            @Override
+            public Task next() {
+                ensureOpen();
+                if (cursor >= size) {
+                    throw new NoSuchElementException();
+                }
+                lastRet = cursor++;
+                return read(lastRet);
+            }
+
+            @Override
+            public void remove() {
+                if (lastRet < 0) {
+                    throw new IllegalStateException(
+                            "Method remove() should be called after next()");
+                }
+                ensureOpen();
+                removeAt(lastRet);
+                cursor = lastRet;
+                lastRet = -1;
+            }
+        };
+    }
+
+    @Override
+    public OffHeapTaskList clone() {
+        ensureOpen();
+        try {
+            OffHeapTaskList clone = (OffHeapTaskList) super.clone();
+            int segments = Math.max(1, (int) (((long) size + SEGMENT_MASK)
+                    >>> SEGMENT_BITS));
+            clone.records = new ByteBuffer[segments];
+            for (int i = 0; i < segments; i++) {
+                int used = (int) Math.min(SEGMENT_RECORDS,
+                        size - ((long) i << SEGMENT_BITS));
+                clone.records[i] = copy(records[i], used * RECORD_SIZE,
+                        Math.max(used, 1) * RECORD_SIZE);
+            }
+            clone.titles = copy(titles, titlesEnd, Math.max(titlesEnd, 1));
+            return clone;
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public Stream<Task> getStream() {
+        ensureOpen();
+        return IntStream.range(0, size).mapToObj(this::read);
+    }
+
+    @Override
+    public String toString() {
+        return "OffHeapTaskList" + (isClosed() ? "[closed]" : super.toString());
+    }
+}
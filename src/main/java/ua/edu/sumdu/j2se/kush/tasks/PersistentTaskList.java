@@ -0,0 +1,504 @@
+package ua.edu.sumdu.j2se.kush.tasks;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A list of tasks based on a persistent relaxed radix trie.
+ * <p>The tasks are kept in leaf arrays of up to {@link #WIDTH} tasks under
+ * a tree of nodes of up to {@link #WIDTH} children, and in a tail array.
+ * The arrays are never changed once built: {@link #add(Task)} and the
+ * removals copy only the path from the root to the changed leaf, so a copy
+ * of the list made by {@link #clone()} shares all its arrays with the
+ * original list and takes O(1) time and memory.</p>
+ * <p>Every node keeps the cumulative sizes of its children, so leaves may
+ * hold fewer than {@link #WIDTH} tasks after removals. A position is found
+ * by the radix guess of a full tree and a short scan of the sizes. A node
+ * left with fewer than half of {@link #WIDTH} elements by a removal is
+ * merged with or balanced against its neighbour, like in a B-tree, so the
+ * tree stays O(log32 n) deep and a removal copies O(log32 n) nodes.</p>
+ * <p>Unlike the other lists, {@link #clone()} does not copy the tasks
+ * themselves: the clone holds the same {@link Task} instances.</p>
+ */
+public class PersistentTaskList extends AbstractTaskList implements Cloneable {
+
+    /**
+     * The number of bits of an index used on each level of the tree.
+     */
+    private static final int BITS = 5;
+
+    /**
+     * The largest number of elements of a tree node.
+     */
+    private static final int WIDTH = 1 << BITS;
+
+    /**
+     * The smallest number of elements of a node that is left alone by a
+     * removal.
+     */
+    private static final int MIN_WIDTH = WIDTH / 2;
+
+    /**
+     * The root of the tree or null if the tree is empty.
+     */
+    private Node root;
+
+    /**
+     * The number of node levels of the tree above the leaves.
+     */
+    private int height;
+
+    /**
+     * The last (up to {@link #WIDTH}) tasks of the list.
+     */
+    private Object[] tail = new Object[0];
+
+    @Override
+    public ListTypes.types getListType() {
+        return ListTypes.types.PERSISTENT;
+    }
+
+    @Override
+    public Task getTask(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index
+                    + ", size: " + size);
+        }
+        int offset = size - tail.length;
+        if (index >= offset) {
+            return (Task) tail[index - offset];
+        }
+        Object node = root;
+        for (int level = height; level > 0; level--) {
+            Node n = (Node) node;
+            int slot = n.slotOf(index, level);
+            index -= n.before(slot);
+            node = n.children[slot];
+        }
+        return (Task) ((Object[]) node)[index];
+    }
+
+    /**
+     * Returns the leaf array that holds the task at specified position.
+     *
+     * @param index position of the task.
+     * @param start an array to get the position of the first task of the
+     *              leaf.
+     * @return the leaf array.
+     */
+    private Object[] leafFor(int index, int[] start) {
+        int offset = size - tail.length;
+        if (index >= offset) {
+            start[0] = offset;
+            return tail;
+        }
+        int first = 0;
+        Object node = root;
+        for (int level = height; level > 0; level--) {
+            Node n = (Node) node;
+            int slot = n.slotOf(index - first, level);
+            first += n.before(slot);
+            node = n.children[slot];
+        }
+        start[0] = first;
+        return (Object[]) node;
+    }
+
+    @Override
+    public void add(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("The task cannot be null.");
+        }
+        task = intern(task);
+        taskAdded(task);
+        append(task);
+    }
+
+    /**
+     * Appends a task to the trie.
+     *
+     * @param task task to be added to this list.
+     */
+    private void append(Task task) {
+        if (tail.length < WIDTH) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = task;
+            tail = newTail;
+        } else {
+            pushLeaf(tail);
+            tail = new Object[]{task};
+        }
+        size++;
+    }
+
+    /**
+     * Puts a leaf after the last leaf of the tree.
+     *
+     * @param leaf the leaf.
+     */
+    private void pushLeaf(Object[] leaf) {
+        if (root == null) {
+            root = Node.of(new Object[]{leaf}, 1);
+            height = 1;
+            return;
+        }
+        Node newRoot = pushLeaf(root, height, leaf);
+        if (newRoot == null) {
+            newRoot = Node.of(new Object[]{root, newPath(height, leaf)},
+                    height + 1);
+            height++;
+        }
+        root = newRoot;
+    }
+
+    /**
+     * Copies the path to the last leaf and puts the leaf after it.
+     *
+     * @param node  the node.
+     * @param level the level of the node.
+     * @param leaf  the leaf.
+     * @return the copy of the node or null if the node is full.
+     */
+    private static Node pushLeaf(Node node, int level, Object[] leaf) {
+        int last = node.children.length - 1;
+        Object child = level == 1 ? null
+                : pushLeaf((Node) node.children[last], level - 1, leaf);
+        Object[] children;
+        if (child != null) {
+            children = node.children.clone();
+            children[last] = child;
+        } else if (node.children.length < WIDTH) {
+            children = Arrays.copyOf(node.children, last + 2);
+            children[last + 1] = newPath(level - 1, leaf);
+        } else {
+            return null;
+        }
+        return Node.of(children, level);
+    }
+
+    /**
+     * Builds a chain of nodes that leads to the specified leaf.
+     *
+     * @param level the level of the chain start.
+     * @param leaf  the leaf at the bottom.
+     * @return the top of the chain.
+     */
+    private static Object newPath(int level, Object[] leaf) {
+        return level == 0 ? leaf
+                : Node.of(new Object[]{newPath(level - 1, leaf)}, level);
+    }
+
+    @Override
+    public boolean remove(Task task) {
+        int index = indexOf(task);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * Removes the task at specified position by copying the path to its
+     * leaf.
+     *
+     * @param index position of the task to remove.
+     */
+    private void removeAt(int index) {
+        taskRemoved(getTask(index));
+        int offset = size - tail.length;
+        if (index >= offset) {
+            tail = without(tail, index - offset);
+        } else {
+            Node newRoot = removeAt(root, height, index);
+            while (height > 1 && newRoot.children.length == 1) {
+                newRoot = (Node) newRoot.children[0];
+                height--;
+            }
+            if (newRoot.children.length == 0) {
+                newRoot = null;
+                height = 0;
+            }
+            root = newRoot;
+        }
+        size--;
+    }
+
+    /**
+     * Copies the path to the task at specified position without the task,
+     * and merges or balances the changed child with a neighbour if it gets
+     * fewer than {@link #MIN_WIDTH} elements.
+     *
+     * @param node  the node.
+     * @param level the level of the node.
+     * @param index position of the task in the node.
+     * @return the copy of the node.
+     */
+    private static Node removeAt(Node node, int level, int index) {
+        int slot = node.slotOf(index, level);
+        int local = index - node.before(slot);
+        Object child = level == 1
+                ? without((Object[]) node.children[slot], local)
+                : removeAt((Node) node.children[slot], level - 1, local);
+        Object[] children = node.children.clone();
+        children[slot] = child;
+        if (width(child) < MIN_WIDTH && children.length > 1) {
+            int left = slot > 0 ? slot - 1 : slot;
+            Object[] items = concat(elements(children[left]),
+                    elements(children[left + 1]));
+            if (items.length <= WIDTH) {
+                Object[] merged = new Object[children.length - 1];
+                System.arraycopy(children, 0, merged, 0, left);
+                merged[left] = make(items, level - 1);
+                System.arraycopy(children, left + 2, merged, left + 1,
+                        children.length - left - 2);
+                children = merged;
+            } else {
+                int half = items.length / 2;
+                children[left] = make(Arrays.copyOfRange(items, 0, half),
+                        level - 1);
+                children[left + 1] = make(Arrays.copyOfRange(items, half,
+                        items.length), level - 1);
+            }
+        } else if (width(child) == 0) {
+            children = new Object[0];
+        }
+        return Node.of(children, level);
+    }
+
+    /**
+     * Returns the number of elements of a leaf or a node.
+     */
+    private static int width(Object child) {
+        return elements(child).length;
+    }
+
+    /**
+     * Returns the tasks of a leaf or the children of a node.
+     */
+    private static Object[] elements(Object child) {
+        return child instanceof Node ? ((Node) child).children
+                : (Object[]) child;
+    }
+
+    /**
+     * Returns a leaf of the tasks or a node of the children.
+     *
+     * @param items the tasks or the children.
+     * @param level the level of the result, 0 for a leaf.
+     */
+    private static Object make(Object[] items, int level) {
+        return level == 0 ? items : Node.of(items, level);
+    }
+
+    private static Object[] concat(Object[] a, Object[] b) {
+        Object[] result = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+
+    private static Object[] without(Object[] array, int index) {
+        Object[] result = new Object[array.length - 1];
+        System.arraycopy(array, 0, result, 0, index);
+        System.arraycopy(array, index + 1, result, index,
+                result.length - index);
+        return result;
+    }
+
+    /**
+     * Removes all tasks of this list that satisfy the given predicate in one
+     * pass: the remaining tasks are put into a new trie.
+     *
+     * @param filter a predicate which returns true for tasks to be removed.
+     * @return true if any tasks were removed.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Task> filter) {
+        Objects.requireNonNull(filter);
+        Task[] kept = new Task[size];
+        int count = 0;
+        for (Task task : this) {
+            if (!filter.test(task)) {
+                kept[count++] = task;
+            } else {
+                taskRemoved(task);
+            }
+        }
+        if (count == size) {
+            return false;
+        }
+        root = null;
+        height = 0;
+        tail = new Object[0];
+        size = 0;
+        for (int i = 0; i < count; i++) {
+            append(kept[i]);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified task, if the
+     * task is in this list, otherwise -1.
+     *
+     * @param task task
+     * @return index of the task or -1.
+     */
+    public int indexOf(Task task) {
+        if (task == null) {
+            return -1;
+        }
+        int i = 0;
+        for (Task t : this) {
+            if (task.equals(t)) {
+                return i;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<Task>() {
+            private int cursor;
+            private int lastRet = -1;
+            private Object[] leaf;
+            private final int[] leafStart = new int[1];
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            @Override
+            public Task next() {
+                if (cursor >= size) {
+                    throw new NoSuchElementException();
+                }
+                if (leaf == null || cursor < leafStart[0]
+                        || cursor - leafStart[0] >= leaf.length) {
+                    leaf = leafFor(cursor, leafStart);
+                }
+                lastRet = cursor++;
+                return (Task) leaf[lastRet - leafStart[0]];
+            }
+
+            @Override
+            public void remove() {
+                if (lastRet < 0) {
+                    throw new IllegalStateException(
+                            "Method remove() should be called after next()");
+                }
+                removeAt(lastRet);
+                cursor = lastRet;
+                lastRet = -1;
+                leaf = null;
+            }
+        };
+    }
+
+    /**
+     * Returns a copy of this list that shares its structure and its tasks
+     * with this list. Changes of the membership of either list are not
+     * visible in the other one.
+     *
+     * @return a copy of this list.
+     */
+    @Override
+    public PersistentTaskList clone() {
+        try {
+            return (PersistentTaskList) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public Stream<Task> getStream() {
+        return StreamSupport.stream(Spliterators.spliterator(iterator(), size,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public String toString() {
+        return "PersistentTaskList" + super.toString();
+    }
+
+    /**
+     * A node of the tree with the cumulative sizes of its children.
+     */
+    private static final class Node {
+
+        /**
+         * The children: leaves on level 1, nodes on the higher levels.
+         */
+        final Object[] children;
+
+        /**
+         * The number of tasks under the children from the first one to the
+         * child at the same position.
+         */
+        final int[] sizes;
+
+        private Node(Object[] children, int[] sizes) {
+            this.children = children;
+            this.sizes = sizes;
+        }
+
+        /**
+         * Returns a node of the children.
+         *
+         * @param children the children.
+         * @param level    the level of the node.
+         * @return the node.
+         */
+        static Node of(Object[] children, int level) {
+            int[] sizes = new int[children.length];
+            int total = 0;
+            for (int i = 0; i < children.length; i++) {
+                total += level == 1 ? ((Object[]) children[i]).length
+                        : ((Node) children[i]).size();
+                sizes[i] = total;
+            }
+            return new Node(children, sizes);
+        }
+
+        int size() {
+            return sizes.length == 0 ? 0 : sizes[sizes.length - 1];
+        }
+
+        /**
+         * Returns the number of tasks under the children before the slot.
+         */
+        int before(int slot) {
+            return slot == 0 ? 0 : sizes[slot - 1];
+        }
+
+        /**
+         * Returns the slot of the child that holds the task at specified
+         * position. A child holds no more tasks than in a full tree, so the
+         * slot is never before the radix guess.
+         *
+         * @param index position of the task in this node.
+         * @param level the level of this node.
+         * @return the slot of the child.
+         */
+        int slotOf(int index, int level) {
+            int shift = BITS * level;
+            int slot = shift >= Integer.SIZE - 1 ? 0
+                    : Math.min(index >>> shift, sizes.length - 1);
+            while (sizes[slot] <= index) {
+                slot++;
+            }
+            return slot;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package ua.edu.sumdu.j2se.kush.tasks;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * The runs of a task as an arithmetic progression of UTC epoch seconds.
+ * <p>Every run of a task has the nano-of-second of its start time, and the
+ * runs of a recurring task are the interval apart, so the runs are the
+ * seconds {@code first + k * interval} from "first" to "last", all with
+ * the same nanos. The common runs of two tasks are found by the Chinese
+ * remainder theorem and are a progression again, with the least common
+ * multiple of the intervals.</p>
+ *
+ * @see Tasks#firstCoincidence(Task, Task, LocalDateTime)
+ */
+final class Progression {
+
+    /**
+     * The first run, in UTC epoch seconds.
+     */
+    final long first;
+
+    /**
+     * The last run, in UTC epoch seconds.
+     */
+    final long last;
+
+    /**
+     * The distance between runs in seconds, 0 for a single run.
+     */
+    final long interval;
+
+    /**
+     * The nano-of-second of every run.
+     */
+    final int nano;
+
+    private Progression(long first, long last, long interval, int nano) {
+        this.first = first;
+        this.last = last;
+        this.interval = interval;
+        this.nano = nano;
+    }
+
+    /**
+     * Returns the runs of the task.
+     *
+     * @param task the task.
+     * @return the runs or null if the task never runs.
+     */
+    static Progression of(Task task) {
+        if (task == null || !task.isActive()) {
+            return null;
+        }
+        LocalDateTime start = task.getStartTime();
+        long first = start.toEpochSecond(ZoneOffset.UTC);
+        int nano = start.getNano();
+        if (!task.isRepeated()) {
+            return new Progression(first, first, 0, nano);
+        }
+        LocalDateTime end = task.getEndTime();
+        long span = end.toEpochSecond(ZoneOffset.UTC) - first
+                - (end.getNano() < nano ? 1 : 0);
+        if (span < 0) {
+            return null;
+        }
+        long interval = task.getRepeatInterval();
+        return new Progression(first, first + span / interval * interval,
+                interval, nano);
+    }
+
+    /**
+     * Returns the runs after "start" and no later than "end".
+     *
+     * @param start the start time of the period (exclusive).
+     * @param end   the end time of the period (inclusive).
+     * @return the runs or null if there are none.
+     */
+    Progression clip(LocalDateTime start, LocalDateTime end) {
+        long from = Math.max(first, secondAfter(start));
+        long to = Math.min(last, end.toEpochSecond(ZoneOffset.UTC)
+                - (end.getNano() < nano ? 1 : 0));
+        if (interval == 0) {
+            return from <= first && first <= to ? this : null;
+        }
+        long lo = first + ceilDiv(from - first, interval) * interval;
+        long hi = first + Math.floorDiv(to - first, interval) * interval;
+        return lo <= hi ? new Progression(lo, hi, interval, nano) : null;
+    }
+
+    /**
+     * Returns the runs common to both progressions.
+     *
+     * @param other another progression.
+     * @return the common runs or null if there are none.
+     */
+    Progression intersect(Progression other) {
+        if (nano != other.nano) {
+            return null;
+        }
+        if (interval == 0) {
+            return other.contains(first) ? this : null;
+        }
+        if (other.interval == 0) {
+            return contains(other.first) ? other : null;
+        }
+        // first + i * interval = other.first (mod other.interval) has a
+        // solution only if the difference is a multiple of the gcd.
+        long gcd = gcd(interval, other.interval);
+        long difference = other.first - first;
+        if (difference % gcd != 0) {
+            return null;
+        }
+        long m = other.interval / gcd;
+        long i = Math.floorMod(difference / gcd, m)
+                * inverse(interval / gcd % m, m) % m;
+        long lcm = interval / gcd * other.interval;
+        long common = first + i * interval;
+        long from = Math.max(first, other.first);
+        long to = Math.min(last, other.last);
+        long lo = common + ceilDiv(from - common, lcm) * lcm;
+        if (lo > to) {
+            return null;
+        }
+        return new Progression(lo, lo + (to - lo) / lcm * lcm, lcm, nano);
+    }
+
+    /**
+     * Returns true if the second is a run.
+     *
+     * @param second the UTC epoch second.
+     * @return true if there is a run at the second.
+     */
+    boolean contains(long second) {
+        if (second < first || second > last) {
+            return false;
+        }
+        return interval == 0 ? second == first
+                : (second - first) % interval == 0;
+    }
+
+    /**
+     * Returns the number of runs.
+     *
+     * @return the number of runs.
+     */
+    long count() {
+        return interval == 0 ? 1 : (last - first) / interval + 1;
+    }
+
+    /**
+     * Returns the time of the run.
+     *
+     * @param second the UTC epoch second of the run.
+     * @return the time of the run.
+     */
+    LocalDateTime toTime(long second) {
+        return LocalDateTime.ofEpochSecond(second, nano, ZoneOffset.UTC);
+    }
+
+    /**
+     * Returns the first second whose run would be after the time.
+     */
+    private long secondAfter(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC)
+                + (time.getNano() < nano ? 0 : 1);
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+
+    static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /**
+     * Returns the inverse of "a" modulo "m" for coprime "a" and "m" by the
+     * extended Euclidean algorithm.
+     */
+    private static long inverse(long a, long m) {
+        long r0 = m;
+        long r1 = a;
+        long t0 = 0;
+        long t1 = 1;
+        while (r1 != 0) {
+            long q = r0 / r1;
+            long r = r0 - q * r1;
+            r0 = r1;
+            r1 = r;
+            long t = t0 - q * t1;
+            t0 = t1;
+            t1 = t;
+        }
+        return Math.floorMod(t0, m);
+    }
+}
@@ -1,6 +1,7 @@
 package ua.edu.sumdu.j2se.kush.tasks;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.Objects;
 
@@ -49,6 +50,40 @@ public class Task implements Cloneable {
      */
     private boolean isRepeated;
 
+    /**
+     * Indicates whether the task can no longer be changed.
+     */
+    private boolean isFrozen;
+
+    /**
+     * The hash code of the frozen task.
+     */
+    private int hash;
+
+    /**
+     * Indicates whether the task has been added to a list.
+     */
+    private boolean isListed;
+
+    /**
+     * Indicates whether the task was frozen before it was added to any
+     * list, so every list counts it in its hash code.
+     */
+    private boolean isCounted;
+
+    /**
+     * This constructor is for subclasses that keep the times of the task
+     * themselves.
+     *
+     * @param title task name.
+     */
+    protected Task(String title) {
+        if (title == null) {
+            throw new IllegalArgumentException("The title must be non-null.");
+        }
+        this.title = title;
+    }
+
     /**
      * This class constructor defines a non-recurring task.
      *
@@ -117,6 +152,7 @@ public class Task implements Cloneable {
      * @param title the task name.
      */
     public void setTitle(String title) {
+        checkNotFrozen();
         this.title = title;
     }
 
@@ -136,6 +172,7 @@ public class Task implements Cloneable {
      *               <b>false</b> to deactivate.
      */
     public void setActive(boolean active) {
+        checkNotFrozen();
         isActive = active;
     }
 
@@ -155,6 +192,7 @@ public class Task implements Cloneable {
      * @param time the time of the task.
      */
     public void setTime(LocalDateTime time) {
+        checkNotFrozen();
         this.time = time;
         isRepeated = false;
     }
@@ -169,6 +207,7 @@ public class Task implements Cloneable {
     public void setTime(LocalDateTime start,
                         LocalDateTime end,
                         int interval) {
+        checkNotFrozen();
 
         if (start == null) {
             throw new IllegalArgumentException("The start time "
@@ -204,6 +243,7 @@ public class Task implements Cloneable {
      * @param start the start time of the task.
      */
     public void setStartTime(LocalDateTime start) {
+        checkNotFrozen();
         if (start == null) {
             throw new IllegalArgumentException("The start time "
                     + "must be non-null.");
@@ -227,6 +267,7 @@ public class Task implements Cloneable {
      * @param end the task end time.
      */
     public void setEndTime(LocalDateTime end) {
+        checkNotFrozen();
         if (end == null) {
             throw new IllegalArgumentException("The end time "
                     + "must be non-null.");
@@ -250,6 +291,7 @@ public class Task implements Cloneable {
      * @param interval the task recurrence interval.
      */
     public void setInterval(int interval) {
+        checkNotFrozen();
         if (interval <= 0) {
             throw new IllegalArgumentException("The interval must be >= 0.");
         }
@@ -271,9 +313,71 @@ public class Task implements Cloneable {
      * @param repeated true - make the task repeatable, false otherwise.
      */
     public void setRepeated(boolean repeated) {
+        checkNotFrozen();
         isRepeated = repeated;
     }
 
+    /**
+     * Makes the task unchangeable: every setter throws
+     * {@link IllegalStateException} from now on. The hash code of a frozen
+     * task is computed once, and lists keep their hash codes up to date
+     * cheaply if their tasks are frozen before they are added.
+     *
+     * @return this task.
+     */
+    public Task freeze() {
+        if (!isFrozen) {
+            hash = hashCode();
+            isCounted = !isListed;
+            isFrozen = true;
+        }
+        return this;
+    }
+
+    /**
+     * Marks the task as added to a list and returns true if lists count it
+     * in their hash codes. A task is counted if it was frozen before it was
+     * added to any list: the mark does not change after that, so a list
+     * subtracts the task on removal only if it has added it on addition.
+     *
+     * @return true if the task is counted in the hash codes of lists.
+     */
+    boolean listed() {
+        if (!isFrozen) {
+            isListed = true;
+        }
+        return isCounted;
+    }
+
+    /**
+     * Returns true if lists count the task in their hash codes.
+     *
+     * @return true if the task is counted in the hash codes of lists.
+     * @see #listed()
+     */
+    boolean isCounted() {
+        return isCounted;
+    }
+
+    /**
+     * Returns true if the task can no longer be changed.
+     *
+     * @return <b>true</b> if the task is frozen, <b>false</b> otherwise.
+     */
+    public boolean isFrozen() {
+        return isFrozen;
+    }
+
+    /**
+     * Throws an exception if the task is frozen. Every setter calls this
+     * method before it changes the task.
+     */
+    protected void checkNotFrozen() {
+        if (isFrozen) {
+            throw new IllegalStateException("The task is frozen.");
+        }
+    }
+
     /**
      * Calculates the next execution time for the task.
      * <p>The method returns -1 in the following cases:</p>
@@ -305,15 +409,108 @@ public class Task implements Cloneable {
         return next;
     }
 
+    /**
+     * Returns the index of the first run of the task after the specified
+     * time. The run with index k of a recurring task is at
+     * start + k * interval, a non-recurring task has the only run with
+     * index 0. The index is calculated in closed form, like
+     * {@link #nextTimeAfter(LocalDateTime)} does.
+     *
+     * @param current current time.
+     * @return the index of the first run after the time or -1 if the task
+     * does not run after it.
+     */
+    public long firstOccurrenceIndex(LocalDateTime current) {
+        if (!isActive()) {
+            return -1;
+        }
+        LocalDateTime first = getStartTime();
+        long index;
+        if (current.isBefore(first)) {
+            index = 0;
+        } else if (!isRepeated()) {
+            return -1;
+        } else {
+            index = ChronoUnit.SECONDS.between(first, current)
+                    / getRepeatInterval() + 1;
+        }
+        return index <= lastOccurrenceIndex(getEndTime()) ? index : -1;
+    }
+
+    /**
+     * Returns the index of the last run of the task no later than the
+     * specified time, the active status is not checked.
+     *
+     * @param time the time.
+     * @return the index of the last run or -1 if there is no such run.
+     */
+    private long lastOccurrenceIndex(LocalDateTime time) {
+        LocalDateTime first = getStartTime();
+        if (!isRepeated()) {
+            return time.isBefore(first) ? -1 : 0;
+        }
+        LocalDateTime last = getEndTime().isBefore(time) ? getEndTime() : time;
+        if (last.isBefore(first)) {
+            return -1;
+        }
+        return ChronoUnit.SECONDS.between(first, last) / getRepeatInterval();
+    }
+
+    /**
+     * Returns the number of runs of the task after "from" and no later
+     * than "to", calculated without visiting the runs.
+     *
+     * @param from the start time of the period (exclusive).
+     * @param to   the end time of the period (inclusive).
+     * @return the number of runs.
+     */
+    public long countOccurrences(LocalDateTime from, LocalDateTime to) {
+        long first = firstOccurrenceIndex(from);
+        if (first < 0) {
+            return 0;
+        }
+        return Math.max(0, lastOccurrenceIndex(to) - first + 1);
+    }
+
+    /**
+     * Writes the times of the runs of the task after "from" and no later
+     * than "to" to the array as UTC epoch seconds in ascending order. The
+     * nano-of-second of every run is the nano-of-second of the start time.
+     * The runs that do not fit in the array are skipped.
+     *
+     * @param from    the start time of the period (exclusive).
+     * @param to      the end time of the period (inclusive).
+     * @param seconds the array to fill.
+     * @param offset  the position of the first run in the array.
+     * @return the number of written runs.
+     */
+    public int fillOccurrences(LocalDateTime from, LocalDateTime to,
+                               long[] seconds, int offset) {
+        long first = firstOccurrenceIndex(from);
+        if (first < 0) {
+            return 0;
+        }
+        long count = Math.min(lastOccurrenceIndex(to) - first + 1,
+                seconds.length - offset);
+        long interval = getRepeatInterval();
+        long next = getStartTime().toEpochSecond(ZoneOffset.UTC)
+                + first * interval;
+        for (int i = 0; i < count; i++) {
+            seconds[offset + i] = next;
+            next += interval;
+        }
+        return (int) Math.max(0, count);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Task task = (Task) o;
 
-        return time.equals(task.time)
-                && start == task.start
-                && end == task.end
+        return Objects.equals(time, task.time)
+                && Objects.equals(start, task.start)
+                && Objects.equals(end, task.end)
                 && interval == task.interval
                 && isActive == task.isActive
                 && isRepeated == task.isRepeated
@@ -322,8 +519,19 @@ public class Task implements Cloneable {
 
     @Override
     public int hashCode() {
-        return Objects.hash(title, start, end, time, interval, isActive,
-                isRepeated);
+        if (isFrozen) {
+            return hash;
+        }
+        // The same value as Objects.hash(...) gives, without the array.
+        int result = 1;
+        result = 31 * result + Objects.hashCode(title);
+        result = 31 * result + Objects.hashCode(start);
+        result = 31 * result + Objects.hashCode(end);
+        result = 31 * result + Objects.hashCode(time);
+        result = 31 * result + interval;
+        result = 31 * result + Boolean.hashCode(isActive);
+        result = 31 * result + Boolean.hashCode(isRepeated);
+        return result;
     }
 
     @Override
@@ -0,0 +1,137 @@
+package ua.edu.sumdu.j2se.kush.tasks;
+
+import java.lang.ref.WeakReference;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A pool of canonical titles and date-time values of tasks.
+ * <p>Tasks loaded from storage usually share a small number of titles and
+ * times, but every task holds its own {@link String} and
+ * {@link LocalDateTime} instances. The interner replaces them with one
+ * shared instance per distinct value.</p>
+ * <p>The pool holds its values weakly, so a value is dropped once no task
+ * refers to it. The pool is also bounded: when it holds more than the
+ * maximum number of values it is cleared and starts over, which costs only
+ * some missed sharing.</p>
+ *
+ * @see AbstractTaskList#setInterner(TaskInterner)
+ */
+public class TaskInterner {
+
+    /**
+     * The default maximum number of values of each kind.
+     */
+    public static final int DEFAULT_MAX_SIZE = 1 << 16;
+
+    /**
+     * The maximum number of values of each kind.
+     */
+    private final int maxSize;
+
+    /**
+     * Canonical titles.
+     */
+    private final Map<String, WeakReference<String>> titles =
+            new WeakHashMap<>();
+
+    /**
+     * Canonical date-time values.
+     */
+    private final Map<LocalDateTime, WeakReference<LocalDateTime>> times =
+            new WeakHashMap<>();
+
+    /**
+     * This constructor is to create an interner with the default maximum
+     * size.
+     */
+    public TaskInterner() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * This constructor specifies the maximum size of the pool.
+     *
+     * @param maxSize the maximum number of values of each kind.
+     */
+    public TaskInterner(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("The maximum size "
+                    + "must be > 0.");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the canonical instance of the title.
+     *
+     * @param title the title.
+     * @return the canonical title equal to the given one.
+     */
+    public synchronized String intern(String title) {
+        return canonical(titles, title);
+    }
+
+    /**
+     * Returns the canonical instance of the date-time value.
+     *
+     * @param time the date-time value.
+     * @return the canonical value equal to the given one.
+     */
+    public synchronized LocalDateTime intern(LocalDateTime time) {
+        return canonical(times, time);
+    }
+
+    /**
+     * Replaces the title and the times of the task with their canonical
+     * instances. The task stays equal to what it was. A frozen task is
+     * returned as it is.
+     *
+     * @param task the task.
+     * @return the same task.
+     */
+    public synchronized Task intern(Task task) {
+        if (task == null || task.isFrozen()) {
+            return task;
+        }
+        task.setTitle(canonical(titles, task.getTitle()));
+        LocalDateTime start = task.getStartTime();
+        LocalDateTime end = task.getEndTime();
+        if (!task.isRepeated()) {
+            if (start != null) {
+                task.setTime(canonical(times, start));
+            }
+        } else if (start != null && end != null
+                && task.getRepeatInterval() > 0) {
+            task.setTime(canonical(times, start), canonical(times, end),
+                    task.getRepeatInterval());
+        }
+        return task;
+    }
+
+    /**
+     * Returns the number of values in the pool.
+     *
+     * @return the number of titles and date-time values in the pool.
+     */
+    public synchronized int size() {
+        return titles.size() + times.size();
+    }
+
+    private <T> T canonical(Map<T, WeakReference<T>> pool, T value) {
+        if (value == null) {
+            return null;
+        }
+        WeakReference<T> ref = pool.get(value);
+        T result = ref == null ? null : ref.get();
+        if (result == null) {
+            if (pool.size() >= maxSize) {
+                pool.clear();
+            }
+            pool.put(value, new WeakReference<>(value));
+            result = value;
+        }
+        return result;
+    }
+}
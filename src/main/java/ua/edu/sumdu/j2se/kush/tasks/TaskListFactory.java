@@ -7,8 +7,35 @@ public abstract class TaskListFactory {
                 return new ArrayTaskList();
             case LINKED:
                 return new LinkedTaskList();
+            case INDEXED:
+                return new IndexedTaskList();
+            case COLUMNAR:
+                return new ColumnarTaskList();
+            case OFF_HEAP:
+                return new OffHeapTaskList();
+            case UNROLLED:
+                return new UnrolledTaskList();
+            case CONCURRENT:
+                return new ConcurrentTaskList();
+            case PERSISTENT:
+                return new PersistentTaskList();
             default:
                 throw new IllegalArgumentException();
         }
     }
+
+    /**
+     * Creates a list of the specified type that replaces the titles and the
+     * times of added tasks with canonical instances from the interner.
+     *
+     * @param type     the type of the list.
+     * @param interner the pool of canonical values shared by the lists.
+     * @return the new list.
+     */
+    public static AbstractTaskList createTaskList(ListTypes.types type,
+                                                  TaskInterner interner) {
+        AbstractTaskList list = createTaskList(type);
+        list.setInterner(interner);
+        return list;
+    }
 }
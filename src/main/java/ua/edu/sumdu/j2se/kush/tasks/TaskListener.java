@@ -0,0 +1,17 @@
+package ua.edu.sumdu.j2se.kush.tasks;
+
+import java.time.LocalDateTime;
+
+/**
+ * A listener of the runs of tasks fired by a {@link TaskScheduler}.
+ */
+public interface TaskListener {
+
+    /**
+     * Is called when the time of a run of the task has come.
+     *
+     * @param task the task.
+     * @param time the time of the run.
+     */
+    void taskFired(Task task, LocalDateTime time);
+}
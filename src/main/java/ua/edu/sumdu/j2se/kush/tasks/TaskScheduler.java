@@ -0,0 +1,360 @@
+package ua.edu.sumdu.j2se.kush.tasks;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * A dispatcher that fires active tasks at their run times.
+ * <p>Scheduled tasks are kept in a {@link TimingWheel}, so scheduling and
+ * cancelling a task take constant time however many tasks are scheduled.
+ * When the time of a run comes, every {@link TaskListener} is called on
+ * the executor, and a recurring task is scheduled again for its
+ * {@link Task#nextTimeAfter(LocalDateTime)} after the fired run. A task
+ * that has become inactive is dropped instead of being fired.</p>
+ * <p>With a {@link FiringExecutor} the runs of one task are delivered in
+ * order even if the listeners block, other executors give no such
+ * guarantee. An exception of a listener, or of an executor that rejects a
+ * run, goes to the uncaught exception handler of the current thread and
+ * does not stop the other listeners and runs.</p>
+ * <p>{@link #start()} runs a daemon thread that moves the wheel along the
+ * clock every tick. Without it the scheduler is moved by
+ * {@link #advanceTo(LocalDateTime)} only.</p>
+ * <p>The times of tasks are local, so a run is fired when the clock shows
+ * its time in the zone of the clock.</p>
+ */
+public class TaskScheduler implements AutoCloseable {
+
+    /**
+     * The default length of a tick in milliseconds.
+     */
+    public static final long DEFAULT_TICK_MILLIS = 1;
+
+    /**
+     * The executor of the listener calls.
+     */
+    private final Executor executor;
+
+    /**
+     * The clock that defines the current time.
+     */
+    private final Clock clock;
+
+    /**
+     * The length of a tick in milliseconds.
+     */
+    private final long tickMillis;
+
+    /**
+     * The time of tick 0 as UTC epoch milliseconds.
+     */
+    private final long originMillis;
+
+    /**
+     * The scheduled runs.
+     */
+    private final TimingWheel wheel = new TimingWheel();
+
+    /**
+     * The scheduled run of every scheduled task.
+     */
+    private final Map<Task, TimingWheel.Timeout> timeouts =
+            new IdentityHashMap<>();
+
+    /**
+     * The listeners of fired runs.
+     */
+    private final List<TaskListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * The thread that moves the wheel along the clock, or null.
+     */
+    private Thread thread;
+
+    /**
+     * This constructor creates a scheduler with the system clock and the
+     * default tick.
+     *
+     * @param executor the executor of the listener calls.
+     */
+    public TaskScheduler(Executor executor) {
+        this(executor, Clock.systemDefaultZone(), DEFAULT_TICK_MILLIS);
+    }
+
+    /**
+     * This constructor creates a scheduler with the specified clock and
+     * tick. The current time of the clock becomes the current time of the
+     * scheduler.
+     *
+     * @param executor   the executor of the listener calls.
+     * @param clock      the clock.
+     * @param tickMillis the length of a tick in milliseconds.
+     */
+    public TaskScheduler(Executor executor, Clock clock, long tickMillis) {
+        if (executor == null || clock == null) {
+            throw new IllegalArgumentException("The executor and the clock "
+                    + "must be non-null.");
+        }
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("The tick must be > 0.");
+        }
+        this.executor = executor;
+        this.clock = clock;
+        this.tickMillis = tickMillis;
+        this.originMillis = toMillis(LocalDateTime.now(clock));
+    }
+
+    /**
+     * Adds a listener of fired runs.
+     *
+     * @param listener the listener.
+     */
+    public void addListener(TaskListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("The listener cannot be null.");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener of fired runs.
+     *
+     * @param listener the listener.
+     * @return true if the listener has been removed.
+     */
+    public boolean removeListener(TaskListener listener) {
+        return listeners.remove(listener);
+    }
+
+    /**
+     * Returns the current time of the scheduler, the time of the current
+     * tick.
+     *
+     * @return the current time.
+     */
+    public synchronized LocalDateTime now() {
+        long millis = originMillis + wheel.currentTick() * tickMillis;
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000),
+                (int) Math.floorMod(millis, 1000) * 1_000_000,
+                ZoneOffset.UTC);
+    }
+
+    /**
+     * Schedules the next run of the task after the current time. A task
+     * that is already scheduled is scheduled again.
+     *
+     * @param task the task.
+     * @return true if the task has a next run and has been scheduled.
+     */
+    public synchronized boolean schedule(Task task) {
+        cancel(task);
+        LocalDateTime next = task.nextTimeAfter(now());
+        if (next == null) {
+            return false;
+        }
+        TimingWheel.Timeout timeout =
+                new TimingWheel.Timeout(task, next, toTick(next));
+        timeouts.put(task, timeout);
+        wheel.add(timeout);
+        return true;
+    }
+
+    /**
+     * Schedules every active task of the list.
+     *
+     * @param tasks the list of tasks.
+     * @return the number of scheduled tasks.
+     */
+    public synchronized int scheduleAll(AbstractTaskList tasks) {
+        int count = 0;
+        for (Task task : tasks) {
+            if (task.isActive() && schedule(task)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Cancels the scheduled run of the task.
+     *
+     * @param task the task.
+     * @return true if the task was scheduled.
+     */
+    public synchronized boolean cancel(Task task) {
+        TimingWheel.Timeout timeout = timeouts.remove(task);
+        if (timeout == null) {
+            return false;
+        }
+        timeout.remove();
+        return true;
+    }
+
+    /**
+     * Returns true if the task is scheduled.
+     *
+     * @param task the task.
+     * @return true if the task is scheduled.
+     */
+    public synchronized boolean isScheduled(Task task) {
+        return timeouts.containsKey(task);
+    }
+
+    /**
+     * Returns the number of scheduled tasks.
+     *
+     * @return the number of scheduled tasks.
+     */
+    public synchronized int size() {
+        return timeouts.size();
+    }
+
+    /**
+     * Moves the scheduler to the specified time and fires every run that
+     * is no later than it. The listeners are called after the scheduler is
+     * moved, in order of the runs.
+     *
+     * @param time the new current time.
+     */
+    public void advanceTo(LocalDateTime time) {
+        List<TimingWheel.Timeout> fired = new ArrayList<>();
+        synchronized (this) {
+            long tick = Math.floorDiv(toMillis(time) - originMillis,
+                    tickMillis);
+            wheel.advance(tick, timeout -> {
+                LocalDateTime next = timeout.task.nextTimeAfter(timeout.time);
+                if (timeout.task.isActive()) {
+                    fired.add(new TimingWheel.Timeout(timeout.task,
+                            timeout.time, timeout.deadline));
+                }
+                if (next == null) {
+                    timeouts.remove(timeout.task);
+                } else {
+                    timeout.time = next;
+                    timeout.deadline = toTick(next);
+                    wheel.add(timeout);
+                }
+            });
+        }
+        // The runs have already been scheduled again, so every one of them
+        // must be passed on even if another one fails.
+        for (TimingWheel.Timeout run : fired) {
+            try {
+                if (executor instanceof FiringExecutor) {
+                    ((FiringExecutor) executor).execute(run.task,
+                            () -> fire(run.task, run.time));
+                } else {
+                    executor.execute(() -> fire(run.task, run.time));
+                }
+            } catch (RuntimeException e) {
+                FiringExecutor.report(e);
+            }
+        }
+    }
+
+    /**
+     * Calls every listener for the run.
+     *
+     * @param task the task.
+     * @param time the time of the run.
+     */
+    private void fire(Task task, LocalDateTime time) {
+        for (TaskListener listener : listeners) {
+            try {
+                listener.taskFired(task, time);
+            } catch (RuntimeException e) {
+                FiringExecutor.report(e);
+            }
+        }
+    }
+
+    /**
+     * Starts the thread that moves the scheduler along the clock every
+     * tick. Does nothing if the thread is already running.
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        thread = new Thread(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    advanceTo(LocalDateTime.now(clock));
+                    Thread.sleep(tickMillis);
+                }
+            } catch (InterruptedException e) {
+                // stopped
+            } finally {
+                // A thread that has died for any reason can be started
+                // again.
+                synchronized (this) {
+                    if (thread == Thread.currentThread()) {
+                        thread = null;
+                    }
+                }
+            }
+        }, "task-scheduler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the thread that moves the scheduler, the scheduled tasks stay
+     * scheduled.
+     */
+    public void stop() {
+        Thread t;
+        synchronized (this) {
+            t = thread;
+            thread = null;
+        }
+        if (t != null) {
+            t.interrupt();
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Stops the thread and cancels every scheduled task.
+     */
+    @Override
+    public void close() {
+        stop();
+        synchronized (this) {
+            for (TimingWheel.Timeout timeout : timeouts.values()) {
+                timeout.remove();
+            }
+            timeouts.clear();
+        }
+    }
+
+    /**
+     * Returns the first tick that is no earlier than the time.
+     *
+     * @param time the time.
+     * @return the tick.
+     */
+    private long toTick(LocalDateTime time) {
+        long millis = toMillis(time);
+        if (time.getNano() % 1_000_000 != 0) {
+            millis++;
+        }
+        return Math.floorDiv(millis - originMillis + tickMillis - 1,
+                tickMillis);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1000
+                + time.getNano() / 1_000_000;
+    }
+}
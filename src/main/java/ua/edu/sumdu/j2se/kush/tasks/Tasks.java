@@ -1,11 +1,22 @@
 package ua.edu.sumdu.j2se.kush.tasks;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -23,6 +34,12 @@ public class Tasks {
     public static Iterable<Task> incoming(
             Iterable<Task> tasks, LocalDateTime start, LocalDateTime end) {
 
+        if (tasks instanceof IndexedTaskList) {
+            return ((IndexedTaskList) tasks).incoming(start, end);
+        }
+        if (tasks instanceof ColumnarTaskList) {
+            return ((ColumnarTaskList) tasks).incoming(start, end);
+        }
         return StreamSupport.stream(tasks.spliterator(), false)
                 .filter(Objects::nonNull)
                 .filter(t -> t.nextTimeAfter(start) != null
@@ -30,6 +47,422 @@ public class Tasks {
                 ).collect(Collectors.toList());
     }
 
+    /**
+     * Returns the tasks that may run after "start" and no later than "end",
+     * in the order of the source. An {@link IndexedTaskList} skips the tasks
+     * whose span misses the period by its interval tree; any other source is
+     * returned as it is.
+     *
+     * @param tasks collection of tasks.
+     * @param start the start time of the period (exclusive).
+     * @param end   the end time of the period (inclusive).
+     * @return the tasks to look at.
+     */
+    static Iterable<Task> candidates(
+            Iterable<Task> tasks, LocalDateTime start, LocalDateTime end) {
+        if (tasks instanceof IndexedTaskList) {
+            return ((IndexedTaskList) tasks).incomingInOrder(start, end);
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns the number of runs of tasks after "start" and no later than
+     * "end". Every task is counted in closed form, so the result is known
+     * before a calendar of the period is built.
+     *
+     * @param tasks collection of tasks.
+     * @param start the start time of the period (exclusive).
+     * @param end   the end time of the period (inclusive).
+     * @return the number of runs.
+     */
+    public static long countOccurrences(
+            Iterable<Task> tasks, LocalDateTime start, LocalDateTime end) {
+        long count = 0;
+        for (Task task : tasks) {
+            if (task != null) {
+                count += task.countOccurrences(start, end);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of runs of tasks in every bucket of the specified
+     * period. Bucket i covers the times after {@code start + i * bucket}
+     * and no later than {@code start + (i + 1) * bucket}, the last bucket
+     * ends at "end".
+     * <p>The runs are counted in closed form: for a task that runs more
+     * often than once per bucket, a bucket is counted at once from the
+     * indexes of its first and last runs; otherwise every run is put in its
+     * bucket. So a task costs no more than the number of buckets it covers,
+     * and no run is allocated.</p>
+     *
+     * @param tasks  collection of tasks.
+     * @param start  the start time of the period (exclusive).
+     * @param end    the end time of the period (inclusive).
+     * @param bucket the length of a bucket.
+     * @return the number of runs in every bucket.
+     */
+    public static long[] histogram(Iterable<Task> tasks, LocalDateTime start,
+                                   LocalDateTime end, Duration bucket) {
+        long[] counts = new long[bucketCount(start, end, bucket)];
+        for (Task task : tasks) {
+            countRuns(task, start, end, bucket.toNanos(), counts);
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the number of runs of tasks in every bucket of the specified
+     * period, the same as
+     * {@link #histogram(Iterable, LocalDateTime, LocalDateTime, Duration)}
+     * does, but counted by the common fork-join pool. Every thread counts
+     * its part of the tasks in its own array, then the arrays are added.
+     *
+     * @param tasks  collection of tasks.
+     * @param start  the start time of the period (exclusive).
+     * @param end    the end time of the period (inclusive).
+     * @param bucket the length of a bucket.
+     * @return the number of runs in every bucket.
+     */
+    public static long[] parallelHistogram(Iterable<Task> tasks,
+                                           LocalDateTime start,
+                                           LocalDateTime end,
+                                           Duration bucket) {
+        int buckets = bucketCount(start, end, bucket);
+        long bucketNanos = bucket.toNanos();
+        return StreamSupport.stream(tasks.spliterator(), true).collect(
+                () -> new long[buckets],
+                (counts, task) ->
+                        countRuns(task, start, end, bucketNanos, counts),
+                (a, b) -> {
+                    for (int i = 0; i < a.length; i++) {
+                        a[i] += b[i];
+                    }
+                });
+    }
+
+    /**
+     * Returns the number of buckets of the period.
+     *
+     * @param start  the start time of the period.
+     * @param end    the end time of the period.
+     * @param bucket the length of a bucket.
+     * @return the number of buckets.
+     */
+    private static int bucketCount(LocalDateTime start, LocalDateTime end,
+                                   Duration bucket) {
+        if (bucket == null || bucket.isNegative() || bucket.isZero()) {
+            throw new IllegalArgumentException("The bucket must be > 0.");
+        }
+        if (!end.isAfter(start)) {
+            return 0;
+        }
+        long length = Duration.between(start, end).toNanos();
+        long buckets = (length - 1) / bucket.toNanos() + 1;
+        if (buckets > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many buckets: "
+                    + buckets + ".");
+        }
+        return (int) buckets;
+    }
+
+    /**
+     * Adds the runs of the task during the period to their buckets.
+     *
+     * @param task        the task, may be null.
+     * @param start       the start time of the period.
+     * @param end         the end time of the period.
+     * @param bucketNanos the length of a bucket in nanoseconds.
+     * @param counts      the number of runs in every bucket.
+     */
+    private static void countRuns(Task task, LocalDateTime start,
+                                  LocalDateTime end, long bucketNanos,
+                                  long[] counts) {
+        if (task == null) {
+            return;
+        }
+        long runs = task.countOccurrences(start, end);
+        if (runs == 0) {
+            return;
+        }
+        // The runs as nanoseconds after the start of the period.
+        long first = ChronoUnit.NANOS.between(start,
+                task.nextTimeAfter(start));
+        long step = task.getRepeatInterval() * 1_000_000_000L;
+        if (runs == 1 || step >= bucketNanos) {
+            long time = first;
+            for (long i = 0; i < runs; i++, time += step) {
+                counts[(int) ((time - 1) / bucketNanos)]++;
+            }
+            return;
+        }
+        long done = 0;
+        for (int i = (int) ((first - 1) / bucketNanos); done < runs; i++) {
+            // The index of the last run no later than the end of bucket i.
+            long last = Math.min(runs - 1,
+                    ((i + 1) * bucketNanos - first) / step);
+            counts[i] += last - done + 1;
+            done = last + 1;
+        }
+    }
+
+    /**
+     * Returns the runs of tasks during the specified period one by one in
+     * order of time, each run as a pair of the time and the task.
+     * <p>Unlike {@link #calendar(Iterable, LocalDateTime, LocalDateTime)},
+     * the runs are not collected in advance: the iterator keeps only the next
+     * run of every task that still runs, so a long period of frequent tasks
+     * takes as much memory as a short one.</p>
+     *
+     * @param tasks collection of tasks.
+     * @param start the start time of the period (exclusive).
+     * @param end   the end time of the period (inclusive).
+     * @return an iterator over the runs.
+     */
+    public static Iterator<Map.Entry<LocalDateTime, Task>> occurrences(
+            Iterable<Task> tasks, LocalDateTime start, LocalDateTime end) {
+        return new OccurrenceIterator(tasks, start, end);
+    }
+
+    /**
+     * Returns the conflicts of tasks during the specified period one by one.
+     * Two runs of different tasks conflict if they are no more than the
+     * tolerance apart, and a {@link Conflict} is a group of runs connected
+     * by such pairs; with zero tolerance it is a group of tasks that run at
+     * the same time.
+     * <p>The runs are swept in order of time and only the runs of the last
+     * "tolerance" are kept, so a conflict is returned as soon as no later
+     * run can join it. The conflicts come in order of their last runs.</p>
+     *
+     * @param tasks     collection of tasks.
+     * @param start     the start time of the period (exclusive).
+     * @param end       the end time of the period (inclusive).
+     * @param tolerance the largest distance between conflicting runs.
+     * @return an iterator over the conflicts.
+     */
+    public static Iterator<Conflict> conflicts(
+            Iterable<Task> tasks, LocalDateTime start, LocalDateTime end,
+            Duration tolerance) {
+        return new ConflictIterator(tasks, start, end, tolerance);
+    }
+
+    /**
+     * Returns the gaps of at least the specified length between the runs of
+     * tasks during the specified period, in order of time. A run takes no
+     * time.
+     *
+     * @param tasks     collection of tasks.
+     * @param start     the start time of the period.
+     * @param end       the end time of the period.
+     * @param minLength the minimum length of a gap.
+     * @return an iterator over the gaps.
+     * @see #freeSlots(Iterable, LocalDateTime, LocalDateTime, Duration,
+     * Duration)
+     */
+    public static Iterator<FreeSlot> freeSlots(
+            Iterable<Task> tasks, LocalDateTime start, LocalDateTime end,
+            Duration minLength) {
+        return freeSlots(tasks, start, end, minLength, Duration.ZERO);
+    }
+
+    /**
+     * Returns the gaps of at least the specified length during the
+     * specified period when no task is busy, in order of time. A task is
+     * busy for the duration from every run on.
+     * <p>The runs are taken in order of time only as far as the gaps are
+     * asked for, so finding the next gap stops at it, and the search keeps
+     * one run per task in memory however long the period is.</p>
+     *
+     * @param tasks     collection of tasks.
+     * @param start     the start time of the period.
+     * @param end       the end time of the period.
+     * @param minLength the minimum length of a gap.
+     * @param duration  the time a task is busy after its run.
+     * @return an iterator over the gaps.
+     */
+    public static Iterator<FreeSlot> freeSlots(
+            Iterable<Task> tasks, LocalDateTime start, LocalDateTime end,
+            Duration minLength, Duration duration) {
+        return new FreeSlotIterator(tasks, start, end, minLength, duration);
+    }
+
+    /**
+     * Returns the first time after the specified one when both tasks run.
+     * The runs of a recurring task are an arithmetic progression, so the
+     * common runs are found by the Chinese remainder theorem in
+     * O(log interval), without the runs themselves.
+     *
+     * @param a     a task.
+     * @param b     another task.
+     * @param after the time (exclusive).
+     * @return the time of the first common run or null if there is none.
+     */
+    public static LocalDateTime firstCoincidence(Task a, Task b,
+                                                 LocalDateTime after) {
+        Progression common = commonRuns(a, b);
+        if (common == null) {
+            return null;
+        }
+        common = common.clip(after, common.toTime(common.last));
+        return common == null ? null : common.toTime(common.first);
+    }
+
+    /**
+     * Returns the times after "start" and no later than "end" when both
+     * tasks run. The common runs are the least common multiple of the
+     * intervals apart, only they are visited.
+     *
+     * @param a     a task.
+     * @param b     another task.
+     * @param start the start time of the period (exclusive).
+     * @param end   the end time of the period (inclusive).
+     * @return the times of the common runs in ascending order.
+     */
+    public static List<LocalDateTime> allCoincidences(
+            Task a, Task b, LocalDateTime start, LocalDateTime end) {
+        List<LocalDateTime> times = new ArrayList<>();
+        Progression common = commonRuns(a, b);
+        if (common != null) {
+            common = common.clip(start, end);
+        }
+        if (common != null) {
+            for (long second = common.first; second <= common.last;
+                 second += common.interval) {
+                times.add(common.toTime(second));
+                if (common.interval == 0) {
+                    break;
+                }
+            }
+        }
+        return times;
+    }
+
+    /**
+     * Returns every pair of tasks that run at the same time during the
+     * specified period, with their first common run and the number of
+     * common runs.
+     * <p>Two tasks can run at the same time only if their first runs are
+     * equal modulo the greatest common divisor of their intervals. So the
+     * tasks are grouped by interval, and for every two groups the tasks of
+     * one group are looked up by that remainder among the tasks of the
+     * other. Only the pairs found are checked, each in O(log interval)
+     * without the runs themselves.</p>
+     *
+     * @param tasks collection of tasks.
+     * @param start the start time of the period (exclusive).
+     * @param end   the end time of the period (inclusive).
+     * @return the pairs of tasks in order of their first common runs.
+     */
+    public static List<Coincidence> coincidences(
+            Iterable<Task> tasks, LocalDateTime start, LocalDateTime end) {
+        List<Task> running = new ArrayList<>();
+        List<Progression> runs = new ArrayList<>();
+        Map<Long, List<Integer>> groups = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            Progression p = Progression.of(task);
+            if (p != null) {
+                p = p.clip(start, end);
+            }
+            if (p != null) {
+                groups.computeIfAbsent(p.interval, k -> new ArrayList<>())
+                        .add(runs.size());
+                running.add(task);
+                runs.add(p);
+            }
+        }
+
+        List<Coincidence> result = new ArrayList<>();
+        List<List<Integer>> list = new ArrayList<>(groups.values());
+        for (int x = 0; x < list.size(); x++) {
+            for (int y = x; y < list.size(); y++) {
+                List<Integer> a = list.get(x);
+                List<Integer> b = list.get(y);
+                long gcd = Progression.gcd(runs.get(a.get(0)).interval,
+                        runs.get(b.get(0)).interval);
+                if (x == y) {
+                    for (List<Integer> same : index(a, runs, gcd).values()) {
+                        for (int i = 0; i < same.size(); i++) {
+                            for (int j = i + 1; j < same.size(); j++) {
+                                addCoincidence(same.get(i), same.get(j),
+                                        running, runs, result);
+                            }
+                        }
+                    }
+                } else if ((long) a.size() * b.size()
+                        <= a.size() + b.size()) {
+                    for (int i : a) {
+                        for (int j : b) {
+                            addCoincidence(i, j, running, runs, result);
+                        }
+                    }
+                } else {
+                    List<Integer> small = a.size() <= b.size() ? a : b;
+                    List<Integer> large = small == a ? b : a;
+                    Map<Long, List<Integer>> index = index(small, runs, gcd);
+                    for (int i : large) {
+                        List<Integer> same = index.get(
+                                remainder(runs.get(i), gcd));
+                        if (same != null) {
+                            for (int j : same) {
+                                addCoincidence(i, j, running, runs, result);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        result.sort(Comparator.comparing(Coincidence::getTime));
+        return result;
+    }
+
+    /**
+     * Groups the tasks by the remainder of their first runs.
+     *
+     * @param group the positions of the tasks.
+     * @param runs  the runs of all the tasks.
+     * @param gcd   the divisor, 0 to group by the first runs.
+     * @return the positions of the tasks by remainder.
+     */
+    private static Map<Long, List<Integer>> index(
+            List<Integer> group, List<Progression> runs, long gcd) {
+        Map<Long, List<Integer>> index = new HashMap<>();
+        for (int i : group) {
+            index.computeIfAbsent(remainder(runs.get(i), gcd),
+                    k -> new ArrayList<>()).add(i);
+        }
+        return index;
+    }
+
+    private static long remainder(Progression p, long gcd) {
+        return gcd == 0 ? p.first : Math.floorMod(p.first, gcd);
+    }
+
+    /**
+     * Adds the common runs of two tasks to the result if there are any.
+     */
+    private static void addCoincidence(int x, int y, List<Task> running,
+                                       List<Progression> runs,
+                                       List<Coincidence> result) {
+        Progression common = runs.get(x).intersect(runs.get(y));
+        if (common != null) {
+            int i = Math.min(x, y);
+            int j = Math.max(x, y);
+            result.add(new Coincidence(running.get(i), running.get(j),
+                    common.toTime(common.first), common.interval,
+                    common.count()));
+        }
+    }
+
+    /**
+     * Returns all the common runs of two tasks.
+     */
+    private static Progression commonRuns(Task a, Task b) {
+        Progression p = Progression.of(a);
+        Progression q = Progression.of(b);
+        return p == null || q == null ? null : p.intersect(q);
+    }
 
     /**
      * Returns a schedule of tasks that can run during the specified period.
@@ -42,22 +475,179 @@ public class Tasks {
     public static SortedMap<LocalDateTime, Set<Task>> calendar(
             Iterable<Task> tasks, LocalDateTime start, LocalDateTime end) {
 
+        if (tasks instanceof ColumnarTaskList) {
+            return ((ColumnarTaskList) tasks).calendar(start, end);
+        }
+
         SortedMap<LocalDateTime, Set<Task>> timeline = new TreeMap<>();
 
-        for (Task task : Tasks.incoming(tasks, start, end)) {
-            for (LocalDateTime date = task.nextTimeAfter(start);
-                 date != null && !date.isAfter(end);
-                 date = task.nextTimeAfter(date)) {
+        // Runs come in order of time, so the runs at the same time follow
+        // each other and share the last set.
+        LocalDateTime lastDate = null;
+        Set<Task> lastSet = null;
+        for (Iterator<Map.Entry<LocalDateTime, Task>> itr =
+             occurrences(tasks, start, end); itr.hasNext(); ) {
+            Map.Entry<LocalDateTime, Task> run = itr.next();
+            if (!run.getKey().equals(lastDate)) {
+                lastDate = run.getKey();
+                lastSet = new HashSet<>();
+                timeline.put(lastDate, lastSet);
+            }
+            lastSet.add(run.getValue());
+        }
+        return timeline;
+    }
 
-                if (timeline.get(date) != null) {
-                    timeline.get(date).add(task);
-                } else {
-                    Set<Task> taskSet = new HashSet<>();
-                    taskSet.add(task);
-                    timeline.put(date, taskSet);
+    /**
+     * Returns a schedule of tasks that can run during the specified period,
+     * the same as {@link #calendar(Iterable, LocalDateTime, LocalDateTime)}
+     * does, if it has no more runs than the cap.
+     * <p>The runs are counted in closed form before the schedule is built,
+     * and the count stops at the first task that takes it over the cap, so
+     * a period too large for memory fails before anything is allocated.
+     * Equal tasks share the sets of the schedule, so their runs are counted
+     * once.</p>
+     *
+     * @param tasks   collection of tasks.
+     * @param start   the start time of the period (exclusive).
+     * @param end     the end time of the period (inclusive).
+     * @param maxRuns the largest number of runs of the schedule.
+     * @return sets of tasks grouped by date of run.
+     * @throws IllegalArgumentException if the period has more runs than the
+     *                                  cap.
+     */
+    public static SortedMap<LocalDateTime, Set<Task>> calendar(
+            Iterable<Task> tasks, LocalDateTime start, LocalDateTime end,
+            long maxRuns) {
+        if (maxRuns < 0) {
+            throw new IllegalArgumentException("The cap must be >= 0.");
+        }
+        Set<Task> seen = new HashSet<>();
+        long count = 0;
+        for (Task task : candidates(tasks, start, end)) {
+            if (task == null) {
+                continue;
+            }
+            long runs = task.countOccurrences(start, end);
+            if (runs > 0 && seen.add(task)) {
+                count += runs;
+                if (count > maxRuns) {
+                    throw new IllegalArgumentException("The period has more "
+                            + "than " + maxRuns + " runs.");
                 }
             }
         }
-        return timeline;
+        return calendar(tasks, start, end);
+    }
+
+    /**
+     * Returns a page of the schedule of tasks that can run during the
+     * specified period: at most "pageSize" times of
+     * {@link #calendar(Iterable, LocalDateTime, LocalDateTime)} with their
+     * tasks, and the cursor of the next page.
+     * <p>The first page is asked with a null cursor. A cursor holds the last
+     * time of its page, and the next page is the schedule of the period
+     * from that time to "end": every task finds its first run after the
+     * cursor in closed form and the runs are merged by a heap, so a page
+     * costs O(n log n) for n tasks plus its own runs, no matter how many
+     * pages come before it.</p>
+     * <p>The pages make up the calendar of the period as long as the tasks
+     * do not change between them.</p>
+     *
+     * @param tasks    collection of tasks.
+     * @param start    the start time of the period (exclusive).
+     * @param end      the end time of the period (inclusive).
+     * @param pageSize the largest number of times of the page.
+     * @param cursor   the cursor of the previous page, or null for the first
+     *                 page.
+     * @return the page.
+     * @throws IllegalArgumentException if the page size is not positive or
+     *                                  the cursor is malformed.
+     */
+    public static CalendarPage calendarPage(
+            Iterable<Task> tasks, LocalDateTime start, LocalDateTime end,
+            int pageSize, String cursor) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("The page size must be > 0.");
+        }
+        LocalDateTime from = start;
+        if (cursor != null) {
+            LocalDateTime last = CalendarPage.decode(cursor);
+            if (last.isAfter(from)) {
+                from = last;
+            }
+        }
+
+        SortedMap<LocalDateTime, Set<Task>> page = new TreeMap<>();
+        LocalDateTime lastDate = null;
+        Set<Task> lastSet = null;
+        for (Iterator<Map.Entry<LocalDateTime, Task>> itr =
+             occurrences(tasks, from, end); itr.hasNext(); ) {
+            Map.Entry<LocalDateTime, Task> run = itr.next();
+            if (!run.getKey().equals(lastDate)) {
+                // A time is never split between pages: the page ends before
+                // the first run of the time that does not fit.
+                if (page.size() == pageSize) {
+                    return new CalendarPage(page, lastDate);
+                }
+                lastDate = run.getKey();
+                lastSet = new HashSet<>();
+                page.put(lastDate, Collections.unmodifiableSet(lastSet));
+            }
+            lastSet.add(run.getValue());
+        }
+        return new CalendarPage(page, null);
+    }
+
+    /**
+     * Returns a schedule of tasks that can run during the specified period,
+     * the same as {@link #calendar(Iterable, LocalDateTime, LocalDateTime)}
+     * does, in flat arrays. The schedule takes a fraction of the memory of
+     * the calendar and can be read as a calendar by
+     * {@link CompactCalendar#asSortedMap()}.
+     *
+     * @param tasks collection of tasks.
+     * @param start the start time of the period (exclusive).
+     * @param end   the end time of the period (inclusive).
+     * @return the schedule.
+     */
+    public static CompactCalendar compactCalendar(
+            Iterable<Task> tasks, LocalDateTime start, LocalDateTime end) {
+        return CompactCalendar.build(tasks, start, end);
+    }
+
+    /**
+     * Returns a schedule of tasks that can run during the specified period,
+     * the same as {@link #calendar(Iterable, LocalDateTime, LocalDateTime)}
+     * does, but built by the common fork-join pool.
+     *
+     * @param tasks collection of tasks.
+     * @param start the start time of the period.
+     * @param end   the end time of the period.
+     * @return sets of tasks grouped by date of run.
+     */
+    public static SortedMap<LocalDateTime, Set<Task>> parallelCalendar(
+            Iterable<Task> tasks, LocalDateTime start, LocalDateTime end) {
+        return parallelCalendar(tasks, start, end, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns a schedule of tasks that can run during the specified period,
+     * built by the specified fork-join pool.
+     * <p>The tasks are split by their spliterator into parts, every part gets
+     * its own calendar and the calendars are merged. The split is even for
+     * lists with sized spliterators, such as {@link ArrayTaskList} and
+     * {@link LinkedTaskList}.</p>
+     *
+     * @param tasks collection of tasks.
+     * @param start the start time of the period.
+     * @param end   the end time of the period.
+     * @param pool  the pool to build the calendar.
+     * @return sets of tasks grouped by date of run.
+     */
+    public static SortedMap<LocalDateTime, Set<Task>> parallelCalendar(
+            Iterable<Task> tasks, LocalDateTime start, LocalDateTime end,
+            ForkJoinPool pool) {
+        return pool.invoke(new CalendarTask(tasks.spliterator(), start, end));
     }
 }
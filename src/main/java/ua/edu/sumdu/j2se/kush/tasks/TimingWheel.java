@@ -0,0 +1,276 @@
+package ua.edu.sumdu.j2se.kush.tasks;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel of task runs.
+ * <p>Time is counted in ticks. The wheel has {@link #LEVELS} levels of
+ * {@link #SLOTS} slots each: a slot of level 0 holds the runs of one tick,
+ * a slot of level l holds the runs of {@code SLOTS^l} ticks. A run is
+ * placed on the lowest level whose slot covers it, so adding and removing
+ * a run take constant time. When the current tick enters a slot of an
+ * upper level, the runs of that slot are moved down to the lower levels;
+ * every run moves at most {@link #LEVELS} times before it expires.</p>
+ * <p>The wheel is not thread-safe.</p>
+ *
+ * @see TaskScheduler
+ */
+class TimingWheel {
+
+    /**
+     * The number of bits of a tick that select a slot of a level.
+     */
+    static final int BITS = 6;
+
+    /**
+     * The number of slots of a level.
+     */
+    static final int SLOTS = 1 << BITS;
+
+    /**
+     * The number of levels. The wheel covers {@code SLOTS^LEVELS} ticks,
+     * the runs that are farther are kept in a separate list.
+     */
+    static final int LEVELS = 7;
+
+    private static final int MASK = SLOTS - 1;
+
+    /**
+     * The slots of the levels, every slot is the head of a ring of runs.
+     */
+    private final Timeout[][] slots = new Timeout[LEVELS][SLOTS];
+
+    /**
+     * The runs whose tick has already come.
+     */
+    private Timeout due = new Timeout(null, null, 0);
+
+    /**
+     * The runs that are beyond the last level.
+     */
+    private final Timeout far = new Timeout(null, null, 0);
+
+    /**
+     * The current tick.
+     */
+    private long currentTick;
+
+    /**
+     * This constructor creates an empty wheel at tick 0.
+     */
+    TimingWheel() {
+        for (Timeout[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                level[i] = new Timeout(null, null, 0);
+            }
+        }
+    }
+
+    /**
+     * Returns the current tick.
+     *
+     * @return the current tick.
+     */
+    long currentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Adds a run to the wheel. A run whose tick has come expires on the
+     * next {@link #advance(long, Consumer)}.
+     *
+     * @param timeout the run.
+     */
+    void add(Timeout timeout) {
+        long deadline = timeout.deadline;
+        if (deadline <= currentTick) {
+            due.append(timeout);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = BITS * (level + 1);
+            if ((deadline >>> shift) == (currentTick >>> shift)) {
+                int slot = (int) (deadline >>> (BITS * level)) & MASK;
+                slots[level][slot].append(timeout);
+                return;
+            }
+        }
+        far.append(timeout);
+    }
+
+    /**
+     * Moves the wheel to the specified tick and passes every expired run
+     * to the consumer. The consumer may add runs to the wheel.
+     * <p>The wheel jumps from one occupied slot to the next, so the time
+     * does not depend on the number of empty ticks on the way.</p>
+     *
+     * @param tick    the new current tick.
+     * @param expired the consumer of expired runs.
+     */
+    void advance(long tick, Consumer<Timeout> expired) {
+        expire(expired);
+        while (currentTick < tick) {
+            currentTick = Math.min(tick, nextEvent());
+            int top = 0;
+            while (top < LEVELS - 1 && (currentTick
+                    & ((1L << (BITS * (top + 1))) - 1)) == 0) {
+                top++;
+            }
+            if (top == LEVELS - 1 && (currentTick
+                    & ((1L << (BITS * LEVELS)) - 1)) == 0) {
+                cascade(far);
+            }
+            for (int level = top; level > 0; level--) {
+                cascade(slots[level][(int) (currentTick
+                        >>> (BITS * level)) & MASK]);
+            }
+            Timeout slot = slots[0][(int) currentTick & MASK];
+            for (Timeout t = slot.next; t != slot; t = slot.next) {
+                t.remove();
+                expired.accept(t);
+            }
+            expire(expired);
+        }
+    }
+
+    /**
+     * Returns the first tick after the current one at which a run expires
+     * or moves down.
+     * <p>The runs of level l are in the slots after the current slot of
+     * the level, within the current slot of level l + 1, so they all come
+     * before the runs of the higher levels. The first occupied slot of the
+     * lowest occupied level is the next event.</p>
+     *
+     * @return the tick or {@link Long#MAX_VALUE} if the wheel is empty.
+     */
+    private long nextEvent() {
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = BITS * level;
+            int current = (int) (currentTick >>> shift) & MASK;
+            for (int i = current + 1; i < SLOTS; i++) {
+                Timeout slot = slots[level][i];
+                if (slot.next != slot) {
+                    return ((currentTick >>> (shift + BITS))
+                            << (shift + BITS)) + ((long) i << shift);
+                }
+            }
+        }
+        if (far.next != far) {
+            int shift = BITS * LEVELS;
+            return ((currentTick >>> shift) + 1) << shift;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Passes the runs whose tick has already come to the consumer.
+     *
+     * @param expired the consumer of expired runs.
+     */
+    private void expire(Consumer<Timeout> expired) {
+        if (due.next == due) {
+            return;
+        }
+        Timeout ring = due;
+        due = new Timeout(null, null, 0);
+        for (Timeout t = ring.next; t != ring; t = ring.next) {
+            t.remove();
+            expired.accept(t);
+        }
+    }
+
+    /**
+     * Adds the runs of a slot again, so they move to the lower levels.
+     * <p>The runs are detached from the slot first: a run of {@link #far}
+     * that is still beyond the last level goes back to {@link #far}.</p>
+     *
+     * @param slot the head of the slot.
+     */
+    private void cascade(Timeout slot) {
+        if (slot.next == slot) {
+            return;
+        }
+        Timeout ring = new Timeout(null, null, 0);
+        slot.moveTo(ring);
+        for (Timeout t = ring.next; t != ring; t = ring.next) {
+            t.remove();
+            add(t);
+        }
+    }
+
+    /**
+     * A run of a task in the wheel, a node of a ring of runs.
+     */
+    static class Timeout {
+
+        /**
+         * The task to run.
+         */
+        final Task task;
+
+        /**
+         * The time of the run.
+         */
+        LocalDateTime time;
+
+        /**
+         * The tick of the run.
+         */
+        long deadline;
+
+        private Timeout prev = this;
+        private Timeout next = this;
+
+        /**
+         * This constructor defines a run.
+         *
+         * @param task     the task to run.
+         * @param time     the time of the run.
+         * @param deadline the tick of the run.
+         */
+        Timeout(Task task, LocalDateTime time, long deadline) {
+            this.task = task;
+            this.time = time;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Inserts the run before this head of a ring.
+         *
+         * @param timeout the run.
+         */
+        private void append(Timeout timeout) {
+            timeout.prev = prev;
+            timeout.next = this;
+            prev.next = timeout;
+            prev = timeout;
+        }
+
+        /**
+         * Moves the runs of this head of a ring to another empty head.
+         *
+         * @param head the empty head.
+         */
+        private void moveTo(Timeout head) {
+            if (next == this) {
+                return;
+            }
+            head.next = next;
+            head.prev = prev;
+            next.prev = head;
+            prev.next = head;
+            prev = next = this;
+        }
+
+        /**
+         * Removes the run from its ring, does nothing if the run is not in
+         * a ring.
+         */
+        void remove() {
+            prev.next = next;
+            next.prev = prev;
+            prev = next = this;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package ua.edu.sumdu.j2se.kush.tasks;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A list of tasks based on an unrolled linked list.
+ * <p>Each node of the list holds a chunk of up to {@link #CHUNK_SIZE}
+ * tasks, so the list is iterated almost as fast as an array, a task is
+ * found by its position in O(n / CHUNK_SIZE) steps and removal shifts only
+ * the tasks of one chunk.</p>
+ */
+public class UnrolledTaskList extends AbstractTaskList implements Cloneable {
+
+    /**
+     * The maximum number of tasks in a node.
+     */
+    static final int CHUNK_SIZE = 32;
+
+    /**
+     * The first node of this list.
+     */
+    private Node first;
+
+    /**
+     * The last node of this list.
+     */
+    private Node last;
+
+    @Override
+    public ListTypes.types getListType() {
+        return ListTypes.types.UNROLLED;
+    }
+
+    @Override
+    public Task getTask(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index
+                    + ", size: " + size);
+        }
+        Node x;
+        if (index < size / 2) {
+            x = first;
+            while (index >= x.count) {
+                index -= x.count;
+                x = x.next;
+            }
+        } else {
+            x = last;
+            int offset = size - x.count;
+            while (index < offset) {
+                x = x.prev;
+                offset -= x.count;
+            }
+            index -= offset;
+        }
+        return x.tasks[index];
+    }
+
+    @Override
+    public void add(Task task) {
+        if (task == null) {
+            throw new IllegalArgumentException("The task cannot be null.");
+        }
+        if (last == null || last.count == CHUNK_SIZE) {
+            Node x = new Node();
+            if (last == null) {
+                first = x;
+            } else {
+                last.next = x;
+                x.prev = last;
+            }
+            last = x;
+        }
+        task = intern(task);
+        last.tasks[last.count++] = task;
+        taskAdded(task);
+        size++;
+    }
+
+    @Override
+    public boolean remove(Task task) {
+        if (size == 0 || task == null) {
+            return false;
+        }
+        for (Node x = first; x != null; x = x.next) {
+            for (int i = 0; i < x.count; i++) {
+                if (x.tasks[i].equals(task)) {
+                    removeAt(x, i);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the task at specified position of the node.
+     * <p>A node that becomes empty is unlinked. A node that becomes less than
+     * half full takes the tasks of the next node if they fit.</p>
+     *
+     * @param x     the node.
+     * @param index position of the task in the node.
+     */
+    private void removeAt(Node x, int index) {
+        taskRemoved(x.tasks[index]);
+        int numberOfTasksToShift = x.count - index - 1;
+        if (numberOfTasksToShift > 0) {
+            System.arraycopy(x.tasks, index + 1, x.tasks, index,
+                    numberOfTasksToShift);
+        }
+        x.tasks[--x.count] = null;
+        size--;
+
+        if (x.count == 0) {
+            unlink(x);
+        } else if (x.count < CHUNK_SIZE / 2 && x.next != null
+                && x.count + x.next.count <= CHUNK_SIZE) {
+            Node next = x.next;
+            System.arraycopy(next.tasks, 0, x.tasks, x.count, next.count);
+            x.count += next.count;
+            unlink(next);
+        }
+    }
+
+    /**
+     * Removes (unbinds) the specified node from this list.
+     *
+     * @param x node to unlink.
+     */
+    private void unlink(Node x) {
+        final Node next = x.next;
+        final Node prev = x.prev;
+
+        if (prev == null) {
+            first = next;
+        } else {
+            prev.next = next;
+            x.prev = null;
+        }
+
+        if (next == null) {
+            last = prev;
+        } else {
+            next.prev = prev;
+            x.next = null;
+        }
+    }
+
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<Task>() {
+            Node node = first;
+            int offset;
+            int cursor;
+            Node lastNode;
+            int lastOffset = -1;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            @Override
+            public Task next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                while (offset >= node.count) {
+                    node = node.next;
+                    offset = 0;
+                }
+                lastNode = node;
+                lastOffset = offset;
+                cursor++;
+                return node.tasks[offset++];
+            }
+
+            @Override
+            public void remove() {
+                if (lastOffset < 0) {
+                    throw new IllegalStateException(
+                            "Method remove() should be called after next()");
+                }
+                Node next = lastNode.next;
+                removeAt(lastNode, lastOffset);
+                if (lastNode.count == 0) {
+                    node = next;
+                    offset = 0;
+                } else {
+                    node = lastNode;
+                    offset = lastOffset;
+                }
+                lastOffset = -1;
+                cursor--;
+            }
+        };
+    }
+
+    @Override
+    public UnrolledTaskList clone() {
+        try {
+            UnrolledTaskList clone = (UnrolledTaskList) super.clone();
+            clone.size = 0;
+            clone.clearCounted();
+            clone.first = clone.last = null;
+            for (Task task : this) {
+                clone.add(task.clone());
+            }
+            return clone;
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public Stream<Task> getStream() {
+        return StreamSupport.stream(Spliterators.spliterator(iterator(), size,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public String toString() {
+        return "UnrolledTaskList" + super.toString();
+    }
+
+    private static class Node {
+        private final Task[] tasks = new Task[CHUNK_SIZE];
+        private int count;
+        private Node next;
+        private Node prev;
+    }
+}
@@ -41,8 +41,8 @@ public class T4_AbstractTaskList {
 
     @Test
     public void part3_checkTypes() {
-        Assert.assertEquals("ListTypes.types повинен мати 2 елемента", 2, count());
-        Assert.assertTrue("ListTypes.types повинен мати значення ARRAY і LINKED", isRightNames());
+        Assert.assertEquals("ListTypes.types повинен мати 8 елементів", 8, count());
+        Assert.assertTrue("ListTypes.types повинен мати значення ARRAY, LINKED, INDEXED, COLUMNAR, OFF_HEAP, UNROLLED, CONCURRENT і PERSISTENT", isRightNames());
     }
 
     @Test
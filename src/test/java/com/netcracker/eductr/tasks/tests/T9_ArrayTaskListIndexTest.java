@@ -0,0 +1,77 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.ArrayTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static com.netcracker.eductr.tasks.tests.utils.DatesTimes.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_ArrayTaskListIndexTest {
+
+    private static List<Task> toList(ArrayTaskList tasks) {
+        List<Task> result = new ArrayList<>();
+        for (Task task : tasks) {
+            result.add(task);
+        }
+        return result;
+    }
+
+    @Test
+    public void part1_testIndexedMatchesPlain() {
+        Random random = new Random(3);
+        ArrayTaskList indexed = new ArrayTaskList();
+        indexed.setIndexed(true);
+        ArrayTaskList plain = new ArrayTaskList();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            // Some equal tasks to check duplicates.
+            Task task = random.nextBoolean()
+                    ? new Task("T" + random.nextInt(700), NOW)
+                    : new Task("R" + random.nextInt(700), NOW, FROM_NOW_100, 10);
+            tasks.add(task);
+            indexed.add(task);
+            plain.add(task);
+        }
+        for (int i = 0; i < 600; i++) {
+            Task task = tasks.get(random.nextInt(tasks.size()));
+            Assert.assertEquals(plain.indexOf(task), indexed.indexOf(task));
+            Assert.assertEquals(plain.remove(task), indexed.remove(task));
+            Assert.assertEquals(plain.size(), indexed.size());
+        }
+        Assert.assertEquals(toList(plain), toList(indexed));
+        for (int i = 0; i < plain.size(); i++) {
+            Assert.assertEquals(plain.getTask(i), indexed.getTask(i));
+        }
+        Assert.assertEquals(plain, indexed);
+    }
+
+    @Test
+    public void part2_testIteratorRemove() {
+        for (boolean indexed : new boolean[]{false, true}) {
+            ArrayTaskList list = new ArrayTaskList();
+            list.setIndexed(indexed);
+            for (int i = 0; i < 10; i++) {
+                list.add(new Task("T" + i, NOW.plusSeconds(i)));
+            }
+            for (Iterator<Task> it = list.iterator(); it.hasNext(); ) {
+                if (Integer.parseInt(it.next().getTitle().substring(1)) % 3 != 0) {
+                    it.remove();
+                }
+            }
+            Assert.assertEquals(4, list.size());
+            Assert.assertEquals("T9", list.getTask(3).getTitle());
+            Assert.assertEquals(2, list.indexOf(new Task("T6", NOW.plusSeconds(6))));
+            Assert.assertEquals(4, list.getStream().count());
+            Assert.assertEquals(indexed, list.clone().isIndexed());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.AbstractTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.ArrayTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.ListTypes;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+import ua.edu.sumdu.j2se.kush.tasks.TaskListFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.netcracker.eductr.tasks.tests.utils.DatesTimes.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_BulkOperationsTest {
+
+    private static List<Task> tasks(int n) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            tasks.add(new Task("T" + i, NOW.plusSeconds(i)));
+        }
+        return tasks;
+    }
+
+    private static List<String> titles(AbstractTaskList list) {
+        List<String> titles = new ArrayList<>();
+        for (Task task : list) {
+            titles.add(task.getTitle());
+        }
+        return titles;
+    }
+
+    @Test
+    public void part1_testAllListTypes() {
+        List<Task> tasks = tasks(100);
+        for (ListTypes.types type : ListTypes.types.values()) {
+            AbstractTaskList list = TaskListFactory.createTaskList(type);
+            list.addAll(tasks);
+            Assert.assertEquals(type.name(), 100, list.size());
+
+            Assert.assertTrue(type.name(), list.removeIf(t -> t.getTitle().endsWith("3")));
+            Assert.assertFalse(type.name(), list.removeIf(t -> t.getTitle().endsWith("3")));
+            Assert.assertEquals(type.name(), 90, list.size());
+
+            Assert.assertTrue(type.name(), list.removeAll(tasks.subList(0, 10)));
+            Assert.assertEquals(type.name(), 81, list.size());
+
+            Assert.assertTrue(type.name(), list.retainAll(tasks.subList(40, 60)));
+            Assert.assertEquals(type.name(), Arrays.asList("T40", "T41", "T42", "T44", "T45", "T46", "T47", "T48",
+                    "T49", "T50", "T51", "T52", "T54", "T55", "T56", "T57", "T58", "T59"), titles(list));
+
+            list.addAll(list);
+            Assert.assertEquals(type.name(), 36, list.size());
+        }
+    }
+
+    @Test
+    public void part2_testIndexedArrayList() {
+        ArrayTaskList list = new ArrayTaskList();
+        list.setIndexed(true);
+        List<Task> tasks = tasks(50);
+        list.addAll(tasks);
+        list.remove(tasks.get(0));
+        Assert.assertTrue(list.removeIf(t -> t.getTitle().length() == 2));
+        Assert.assertEquals(40, list.size());
+        Assert.assertEquals(0, list.indexOf(tasks.get(10)));
+        Assert.assertEquals(39, list.indexOf(tasks.get(49)));
+        Assert.assertTrue(list.remove(tasks.get(49)));
+        Assert.assertEquals(39, list.size());
+    }
+
+    @Test
+    public void part3_testFailingPredicate() {
+        for (boolean indexed : new boolean[] {false, true}) {
+            ArrayTaskList list = new ArrayTaskList();
+            list.setIndexed(indexed);
+            List<Task> tasks = tasks(20);
+            list.addAll(tasks);
+            list.remove(tasks.get(3));
+            try {
+                list.removeIf(t -> {
+                    if (t.getTitle().equals("T15")) {
+                        throw new IllegalStateException();
+                    }
+                    return t.getTitle().endsWith("1");
+                });
+                Assert.fail();
+            } catch (IllegalStateException e) {
+                // expected
+            }
+            Assert.assertEquals(19, list.size());
+            Assert.assertEquals(18, list.indexOf(tasks.get(19)));
+            Assert.assertEquals(1, list.indexOf(tasks.get(1)));
+            Assert.assertEquals(19, titles(list).size());
+            Assert.assertTrue(list.removeIf(t -> t.getTitle().endsWith("1")));
+            Assert.assertEquals(17, list.size());
+            Assert.assertEquals(16, list.indexOf(tasks.get(19)));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.AbstractTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.CalendarCache;
+import ua.edu.sumdu.j2se.kush.tasks.ListTypes;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+import ua.edu.sumdu.j2se.kush.tasks.TaskListFactory;
+import ua.edu.sumdu.j2se.kush.tasks.Tasks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+
+import static com.netcracker.eductr.tasks.tests.utils.DatesTimes.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_CalendarCacheTest {
+
+    private static AbstractTaskList createList(ListTypes.types type) {
+        AbstractTaskList list = TaskListFactory.createTaskList(type);
+        for (int i = 0; i < 20; i++) {
+            Task task = new Task("T" + i, NOW.plusMinutes(i), NOW.plusHours(5), 600 + i * 60);
+            task.setActive(true);
+            list.add(task);
+        }
+        return list;
+    }
+
+    private static List<Task> toList(Iterable<Task> tasks) {
+        List<Task> list = new ArrayList<>();
+        for (Task task : tasks) {
+            list.add(task);
+        }
+        return list;
+    }
+
+    @Test
+    public void part1_testVersion() {
+        for (ListTypes.types type : ListTypes.types.values()) {
+            AbstractTaskList list = createList(type);
+            long version = list.getVersion();
+            Task task = new Task("X", NOW);
+            list.add(task);
+            Assert.assertNotEquals(type.toString(), version, list.getVersion());
+            version = list.getVersion();
+            Assert.assertFalse(list.remove(new Task("Y", NOW)));
+            Assert.assertEquals(type.toString(), version, list.getVersion());
+            Assert.assertTrue(list.remove(task));
+            Assert.assertNotEquals(type.toString(), version, list.getVersion());
+            version = list.getVersion();
+            Iterator<Task> itr = list.iterator();
+            itr.next();
+            itr.remove();
+            Assert.assertNotEquals(type.toString(), version, list.getVersion());
+        }
+    }
+
+    @Test
+    public void part2_testHitsAndInvalidation() {
+        for (ListTypes.types type : ListTypes.types.values()) {
+            AbstractTaskList list = createList(type);
+            CalendarCache cache = new CalendarCache(10, 1 << 20);
+            LocalDateTime end = NOW.plusHours(3);
+
+            SortedMap<LocalDateTime, Set<Task>> calendar = cache.calendar(list, NOW, end);
+            Assert.assertEquals(Tasks.calendar(list, NOW, end), calendar);
+            Assert.assertSame(calendar, cache.calendar(list, NOW, end));
+            List<Task> incoming = cache.incoming(list, NOW, end);
+            Assert.assertEquals(toList(Tasks.incoming(list, NOW, end)), incoming);
+            Assert.assertSame(incoming, cache.incoming(list, NOW, end));
+            Assert.assertEquals(2, cache.hits());
+            Assert.assertEquals(2, cache.misses());
+            Assert.assertEquals(2, cache.size());
+            Assert.assertEquals(0.5, cache.hitRate(), 0);
+
+            Task task = new Task("New", NOW.plusHours(1));
+            task.setActive(true);
+            list.add(task);
+            SortedMap<LocalDateTime, Set<Task>> changed = cache.calendar(list, NOW, end);
+            Assert.assertNotSame(calendar, changed);
+            Assert.assertEquals(Tasks.calendar(list, NOW, end), changed);
+            Assert.assertEquals(2, cache.size());
+            Assert.assertEquals(3, cache.misses());
+
+            cache.invalidate(list);
+            Assert.assertEquals(0, cache.size());
+            Assert.assertEquals(0, cache.estimatedBytes());
+        }
+    }
+
+    @Test
+    public void part3_testEviction() {
+        AbstractTaskList list = createList(ListTypes.types.ARRAY);
+        CalendarCache cache = new CalendarCache(3, 1 << 20);
+        for (int i = 0; i < 5; i++) {
+            cache.calendar(list, NOW, NOW.plusHours(i));
+        }
+        Assert.assertEquals(3, cache.size());
+        Assert.assertEquals(2, cache.evictions());
+        cache.calendar(list, NOW, NOW.plusHours(2));
+        cache.calendar(list, NOW, NOW.plusHours(5));
+        // Hour 2 was used, hour 3 was the least recently used one.
+        cache.calendar(list, NOW, NOW.plusHours(2));
+        Assert.assertEquals(2, cache.hits());
+        cache.calendar(list, NOW, NOW.plusHours(3));
+        Assert.assertEquals(2, cache.hits());
+
+        long oneResult;
+        cache.clear();
+        cache.calendar(list, NOW, NOW.plusHours(5));
+        oneResult = cache.estimatedBytes();
+        CalendarCache small = new CalendarCache(100, oneResult * 2);
+        small.calendar(list, NOW, NOW.plusHours(5));
+        small.calendar(list, NOW.plusSeconds(1), NOW.plusHours(5));
+        small.calendar(list, NOW.plusSeconds(2), NOW.plusHours(5));
+        Assert.assertEquals(2, small.size());
+        Assert.assertTrue(small.estimatedBytes() <= oneResult * 2);
+
+        CalendarCache tiny = new CalendarCache(100, 10);
+        Assert.assertEquals(Tasks.calendar(list, NOW, NOW.plusHours(5)),
+                tiny.calendar(list, NOW, NOW.plusHours(5)));
+        Assert.assertEquals(0, tiny.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void part4_testUnmodifiable() {
+        AbstractTaskList list = createList(ListTypes.types.LINKED);
+        CalendarCache cache = new CalendarCache(10, 1 << 20);
+        cache.calendar(list, NOW, NOW.plusHours(3)).values().iterator().next().clear();
+    }
+}
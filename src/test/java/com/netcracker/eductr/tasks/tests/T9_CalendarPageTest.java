@@ -0,0 +1,187 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.AbstractTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.CalendarPage;
+import ua.edu.sumdu.j2se.kush.tasks.ListTypes;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+import ua.edu.sumdu.j2se.kush.tasks.TaskListFactory;
+import ua.edu.sumdu.j2se.kush.tasks.Tasks;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static com.netcracker.eductr.tasks.tests.utils.DatesTimes.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_CalendarPageTest {
+
+    private static AbstractTaskList createList(int size, long seed) {
+        Random random = new Random(seed);
+        AbstractTaskList list = TaskListFactory.createTaskList(ListTypes.types.ARRAY);
+        for (int i = 0; i < size; i++) {
+            LocalDateTime start = NOW.plusMinutes(random.nextInt(600) - 60);
+            Task task = random.nextInt(3) == 0
+                    ? new Task("T" + i, start)
+                    : new Task("T" + i, start, start.plusMinutes(random.nextInt(600)),
+                    60 * (1 + random.nextInt(30)));
+            task.setActive(random.nextInt(5) > 0);
+            list.add(task);
+        }
+        return list;
+    }
+
+    private static SortedMap<LocalDateTime, Set<Task>> allPages(Iterable<Task> tasks, LocalDateTime start,
+                                                              LocalDateTime end, int pageSize) {
+        SortedMap<LocalDateTime, Set<Task>> all = new TreeMap<>();
+        String cursor = null;
+        do {
+            CalendarPage page = Tasks.calendarPage(tasks, start, end, pageSize, cursor);
+            Assert.assertTrue(page.getEntries().size() <= pageSize);
+            if (page.hasMore()) {
+                Assert.assertEquals(pageSize, page.getEntries().size());
+            }
+            if (!all.isEmpty() && !page.getEntries().isEmpty()) {
+                Assert.assertTrue(page.getEntries().firstKey().isAfter(all.lastKey()));
+            }
+            all.putAll(page.getEntries());
+            cursor = page.getCursor();
+        } while (cursor != null);
+        return all;
+    }
+
+    @Test
+    public void part1_testPagesMakeUpCalendar() {
+        AbstractTaskList list = createList(50, 25);
+        LocalDateTime end = NOW.plusHours(12);
+        SortedMap<LocalDateTime, Set<Task>> expected = Tasks.calendar(list, NOW, end);
+        Assert.assertFalse(expected.isEmpty());
+        for (int pageSize : new int[]{1, 2, 7, 100, 100000}) {
+            Assert.assertEquals("page size " + pageSize, expected, allPages(list, NOW, end, pageSize));
+        }
+    }
+
+    @Test
+    public void part2_testSingleTimePages() {
+        AbstractTaskList list = TaskListFactory.createTaskList(ListTypes.types.LINKED);
+        Task a = new Task("A", NOW, NOW.plusHours(2), 3600);
+        Task b = new Task("B", NOW, NOW.plusHours(2), 1800);
+        a.setActive(true);
+        b.setActive(true);
+        list.add(a);
+        list.add(b);
+
+        CalendarPage first = Tasks.calendarPage(list, NOW.minusSeconds(1), NOW.plusHours(2), 1, null);
+        Assert.assertEquals(1, first.getEntries().size());
+        Assert.assertEquals(2, first.getEntries().get(NOW).size());
+        Assert.assertTrue(first.hasMore());
+
+        CalendarPage second = Tasks.calendarPage(list, NOW.minusSeconds(1), NOW.plusHours(2), 2,
+                first.getCursor());
+        Assert.assertEquals(2, second.getEntries().size());
+        Assert.assertEquals(NOW.plusMinutes(30), second.getEntries().firstKey());
+        Assert.assertEquals(2, second.getEntries().get(NOW.plusHours(1)).size());
+
+        CalendarPage last = Tasks.calendarPage(list, NOW.minusSeconds(1), NOW.plusHours(2), 2,
+                second.getCursor());
+        Assert.assertEquals(2, last.getEntries().size());
+        Assert.assertFalse(last.hasMore());
+        Assert.assertNull(last.getCursor());
+    }
+
+    @Test
+    public void part3_testEmptyPeriod() {
+        AbstractTaskList list = createList(20, 3);
+        CalendarPage page = Tasks.calendarPage(list, NOW.plusYears(1), NOW.plusYears(2), 10, null);
+        Assert.assertTrue(page.getEntries().isEmpty());
+        Assert.assertFalse(page.hasMore());
+    }
+
+    @Test
+    public void part4_testReadOnly() {
+        AbstractTaskList list = createList(20, 3);
+        SortedMap<LocalDateTime, Set<Task>> entries = Tasks.calendarPage(list, NOW, NOW.plusHours(5), 10, null)
+                .getEntries();
+        Assert.assertFalse(entries.isEmpty());
+        try {
+            entries.clear();
+            Assert.fail("The page must be read-only.");
+        } catch (UnsupportedOperationException expected) {
+            // the map is read-only
+        }
+        try {
+            entries.values().iterator().next().clear();
+            Assert.fail("The sets of the page must be read-only.");
+        } catch (UnsupportedOperationException expected) {
+            // the set is read-only
+        }
+    }
+
+    @Test
+    public void part5_testInvalidArguments() {
+        AbstractTaskList list = createList(20, 3);
+        for (String cursor : new String[]{"", "%%%", "bm90IGEgY3Vyc29y"}) {
+            try {
+                Tasks.calendarPage(list, NOW, NOW.plusHours(5), 10, cursor);
+                Assert.fail("Cursor \"" + cursor + "\" must be rejected.");
+            } catch (IllegalArgumentException expected) {
+                // the cursor is malformed
+            }
+        }
+        try {
+            Tasks.calendarPage(list, NOW, NOW.plusHours(5), 0, null);
+            Assert.fail("Page size 0 must be rejected.");
+        } catch (IllegalArgumentException expected) {
+            // the page size is not positive
+        }
+    }
+
+    @Test
+    public void part6_testHardCap() {
+        AbstractTaskList list = createList(50, 25);
+        LocalDateTime end = NOW.plusHours(12);
+        long runs = Tasks.countOccurrences(list, NOW, end);
+        Assert.assertEquals(Tasks.calendar(list, NOW, end), Tasks.calendar(list, NOW, end, runs));
+        try {
+            Tasks.calendar(list, NOW, end, runs - 1);
+            Assert.fail("The cap must be enforced.");
+        } catch (IllegalArgumentException expected) {
+            // the period has more runs than the cap
+        }
+
+        Task huge = new Task("Huge", NOW, NOW.plusYears(100), 1);
+        huge.setActive(true);
+        list.add(huge);
+        try {
+            Tasks.calendar(list, NOW, NOW.plusYears(100), 1_000_000);
+            Assert.fail("The cap must be enforced.");
+        } catch (IllegalArgumentException expected) {
+            // the period has more runs than the cap
+        }
+    }
+
+    @Test
+    public void part7_testHardCapCountsEqualTasksOnce() {
+        AbstractTaskList list = TaskListFactory.createTaskList(ListTypes.types.ARRAY);
+        for (int i = 0; i < 3; i++) {
+            Task task = new Task("A", NOW, NOW.plusHours(10), 3600);
+            task.setActive(true);
+            list.add(task);
+        }
+        LocalDateTime end = NOW.plusHours(10);
+        Assert.assertEquals(30, Tasks.countOccurrences(list, NOW, end));
+        Assert.assertEquals(10, Tasks.calendar(list, NOW, end, 10).size());
+        try {
+            Tasks.calendar(list, NOW, end, 9);
+            Assert.fail("The cap must be enforced.");
+        } catch (IllegalArgumentException expected) {
+            // the period has more runs than the cap
+        }
+    }
+}
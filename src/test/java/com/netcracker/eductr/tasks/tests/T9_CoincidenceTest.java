@@ -0,0 +1,119 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.AbstractTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.Coincidence;
+import ua.edu.sumdu.j2se.kush.tasks.ListTypes;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+import ua.edu.sumdu.j2se.kush.tasks.TaskListFactory;
+import ua.edu.sumdu.j2se.kush.tasks.Tasks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static com.netcracker.eductr.tasks.tests.utils.DatesTimes.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_CoincidenceTest {
+
+    private static Task randomTask(Random random) {
+        LocalDateTime start = NOW.plusSeconds(random.nextInt(3000))
+                .withNano(random.nextInt(3) == 0 ? 500_000_000 : 0);
+        Task task = random.nextInt(4) == 0
+                ? new Task("T", start)
+                : new Task("T", start, start.plusSeconds(random.nextInt(20000)), 1 + random.nextInt(400));
+        task.setActive(random.nextInt(8) > 0);
+        return task;
+    }
+
+    private static List<LocalDateTime> common(Task a, Task b, LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime> times = new ArrayList<>();
+        for (LocalDateTime t = a.nextTimeAfter(from); t != null && !t.isAfter(to); t = a.nextTimeAfter(t)) {
+            if (t.equals(b.nextTimeAfter(t.minusNanos(1)))) {
+                times.add(t);
+            }
+        }
+        return times;
+    }
+
+    @Test
+    public void part1_testPairs() {
+        Random random = new Random(31);
+        for (int i = 0; i < 3000; i++) {
+            Task a = randomTask(random);
+            Task b = randomTask(random);
+            LocalDateTime from = NOW.plusSeconds(random.nextInt(5000));
+            LocalDateTime to = from.plusSeconds(random.nextInt(20000));
+            List<LocalDateTime> expected = common(a, b, from, to);
+            Assert.assertEquals(a + " " + b, expected, Tasks.allCoincidences(a, b, from, to));
+            Assert.assertEquals(expected, Tasks.allCoincidences(b, a, from, to));
+            List<LocalDateTime> after = common(a, b, from, NOW.plusDays(2));
+            Assert.assertEquals(after.isEmpty() ? null : after.get(0), Tasks.firstCoincidence(a, b, from));
+        }
+    }
+
+    @Test
+    public void part2_testBatch() {
+        Random random = new Random(32);
+        AbstractTaskList list = TaskListFactory.createTaskList(ListTypes.types.ARRAY);
+        for (int i = 0; i < 150; i++) {
+            list.add(randomTask(random));
+        }
+        LocalDateTime from = NOW.plusSeconds(1000);
+        LocalDateTime to = NOW.plusSeconds(15000);
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < list.size(); i++) {
+            for (int j = i + 1; j < list.size(); j++) {
+                List<LocalDateTime> times = common(list.getTask(i), list.getTask(j), from, to);
+                if (!times.isEmpty()) {
+                    expected.add(i + " " + j + " " + times.get(0) + " " + times.size());
+                }
+            }
+        }
+        Set<String> actual = new HashSet<>();
+        LocalDateTime previous = null;
+        for (Coincidence c : Tasks.coincidences(list, from, to)) {
+            int i = indexOf(list, c.getFirst());
+            int j = indexOf(list, c.getSecond());
+            Assert.assertTrue(i < j);
+            Assert.assertTrue(actual.add(i + " " + j + " " + c.getTime() + " " + c.getCount()));
+            Assert.assertEquals(Tasks.allCoincidences(c.getFirst(), c.getSecond(), from, to).size(),
+                    c.getCount());
+            if (previous != null) {
+                Assert.assertFalse(c.getTime().isBefore(previous));
+            }
+            previous = c.getTime();
+        }
+        Assert.assertEquals(expected, actual);
+    }
+
+    private static int indexOf(AbstractTaskList list, Task task) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.getTask(i) == task) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    public void part3_testFarAway() {
+        Task a = new Task("A", NOW.withNano(0), NOW.withNano(0).plusYears(100), 997);
+        Task b = new Task("B", NOW.withNano(0).plusSeconds(5), NOW.withNano(0).plusYears(100), 1009);
+        a.setActive(true);
+        b.setActive(true);
+        LocalDateTime first = Tasks.firstCoincidence(a, b, NOW);
+        Assert.assertNotNull(first);
+        Assert.assertEquals(first, a.nextTimeAfter(first.minusSeconds(1)));
+        Assert.assertEquals(first, b.nextTimeAfter(first.minusSeconds(1)));
+        Assert.assertEquals(first.plusSeconds(997L * 1009), Tasks.firstCoincidence(a, b, first));
+        Assert.assertNull(Tasks.firstCoincidence(a, new Task("C", NOW.withNano(1), NOW.plusYears(1), 1), NOW));
+    }
+}
@@ -0,0 +1,91 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.ArrayTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.ColumnarTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+import ua.edu.sumdu.j2se.kush.tasks.Tasks;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static com.netcracker.eductr.tasks.tests.utils.DatesTimes.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_ColumnarTaskListTest {
+
+    private static Set<String> titles(Iterable<Task> tasks) {
+        Set<String> titles = new HashSet<>();
+        for (Task task : tasks) {
+            titles.add(task.getTitle());
+        }
+        return titles;
+    }
+
+    private static SortedMap<LocalDateTime, Set<String>> titles(SortedMap<LocalDateTime, Set<Task>> calendar) {
+        SortedMap<LocalDateTime, Set<String>> result = new TreeMap<>();
+        for (Map.Entry<LocalDateTime, Set<Task>> e : calendar.entrySet()) {
+            result.put(e.getKey(), titles(e.getValue()));
+        }
+        return result;
+    }
+
+    @Test
+    public void part1_testRoundTrip() {
+        ColumnarTaskList list = new ColumnarTaskList();
+        Task a = new Task("A", NOW);
+        Task b = new Task("B", NOW, FROM_NOW_100, 7);
+        b.setActive(true);
+        list.add(a);
+        list.add(b);
+
+        Assert.assertEquals(2, list.size());
+        Assert.assertEquals(a.toString(), list.getTask(0).toString());
+        Assert.assertEquals(b.getStartTime(), list.getTask(1).getStartTime());
+        Assert.assertEquals(b.getEndTime(), list.getTask(1).getEndTime());
+        Assert.assertEquals(7, list.getTask(1).getRepeatInterval());
+        Assert.assertTrue(list.getTask(1).isActive());
+
+        Assert.assertTrue(list.remove(a));
+        Assert.assertFalse(list.remove(a));
+        Assert.assertEquals("B", list.getTask(0).getTitle());
+
+        Iterator<Task> it = list.iterator();
+        it.next();
+        it.remove();
+        Assert.assertEquals(0, list.size());
+    }
+
+    @Test
+    public void part2_testQueriesMatchTasks() {
+        Random random = new Random(7);
+        ColumnarTaskList columnar = new ColumnarTaskList();
+        ArrayTaskList plain = new ArrayTaskList();
+        for (int i = 0; i < 300; i++) {
+            LocalDateTime start = NOW.plusSeconds(random.nextInt(5000));
+            Task task = random.nextBoolean()
+                    ? new Task("T" + i, start)
+                    : new Task("T" + i, start, start.plusSeconds(random.nextInt(2000)), 1 + random.nextInt(200));
+            task.setActive(random.nextInt(10) > 0);
+            columnar.add(task);
+            plain.add(task);
+        }
+        for (int i = 0; i < 30; i++) {
+            LocalDateTime from = NOW.plusSeconds(random.nextInt(6000) - 500).plusNanos(random.nextInt(1000000000));
+            LocalDateTime to = from.plusSeconds(random.nextInt(400));
+            Assert.assertEquals("incoming(" + from + ", " + to + ")",
+                    titles(Tasks.incoming(plain, from, to)), titles(Tasks.incoming(columnar, from, to)));
+            Assert.assertEquals("calendar(" + from + ", " + to + ")",
+                    titles(Tasks.calendar(plain, from, to)), titles(Tasks.calendar(columnar, from, to)));
+        }
+    }
+}
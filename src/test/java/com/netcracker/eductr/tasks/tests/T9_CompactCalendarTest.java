@@ -0,0 +1,111 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.AbstractTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.CompactCalendar;
+import ua.edu.sumdu.j2se.kush.tasks.ListTypes;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+import ua.edu.sumdu.j2se.kush.tasks.TaskListFactory;
+import ua.edu.sumdu.j2se.kush.tasks.Tasks;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.Set;
+import java.util.SortedMap;
+
+import static com.netcracker.eductr.tasks.tests.utils.DatesTimes.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_CompactCalendarTest {
+
+    private static AbstractTaskList createList(ListTypes.types type, int size, long seed) {
+        Random random = new Random(seed);
+        AbstractTaskList list = TaskListFactory.createTaskList(type);
+        for (int i = 0; i < size; i++) {
+            LocalDateTime start = NOW.plusMinutes(random.nextInt(1440))
+                    .withNano(random.nextInt(2) * 500_000_000);
+            Task task = random.nextInt(3) == 0
+                    ? new Task("T" + i % 50, start)
+                    : new Task("T" + i % 50, start, start.plusHours(random.nextInt(24)),
+                    60 * (1 + random.nextInt(120)));
+            task.setActive(random.nextInt(4) > 0);
+            list.add(task);
+        }
+        return list;
+    }
+
+    @Test
+    public void part1_testSameAsCalendar() {
+        for (ListTypes.types type : ListTypes.types.values()) {
+            AbstractTaskList list = createList(type, 2000, 5);
+            LocalDateTime start = NOW.plusHours(2);
+            LocalDateTime end = NOW.plusHours(26);
+            SortedMap<LocalDateTime, Set<Task>> expected = Tasks.calendar(list, start, end);
+            CompactCalendar compact = Tasks.compactCalendar(list, start, end);
+            Assert.assertEquals(type.name(), expected, compact.asSortedMap());
+            Assert.assertEquals(expected.size(), compact.size());
+            int runs = 0;
+            for (Set<Task> set : expected.values()) {
+                runs += set.size();
+            }
+            Assert.assertEquals(runs, compact.runCount());
+        }
+    }
+
+    @Test
+    public void part2_testView() {
+        AbstractTaskList list = createList(ListTypes.types.ARRAY, 500, 6);
+        LocalDateTime start = NOW;
+        LocalDateTime end = NOW.plusDays(2);
+        SortedMap<LocalDateTime, Set<Task>> expected = Tasks.calendar(list, start, end);
+        SortedMap<LocalDateTime, Set<Task>> view = Tasks.compactCalendar(list, start, end).asSortedMap();
+
+        Assert.assertEquals(expected.firstKey(), view.firstKey());
+        Assert.assertEquals(expected.lastKey(), view.lastKey());
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime a = NOW.plusSeconds(random.nextInt(200000));
+            LocalDateTime b = a.plusSeconds(random.nextInt(20000));
+            Assert.assertEquals(expected.subMap(a, b), view.subMap(a, b));
+            Assert.assertEquals(expected.headMap(a), view.headMap(a));
+            Assert.assertEquals(expected.tailMap(b), view.tailMap(b));
+            Assert.assertEquals(expected.get(a), view.get(a));
+        }
+        for (LocalDateTime time : expected.keySet()) {
+            Assert.assertTrue(view.containsKey(time));
+            Assert.assertEquals(expected.get(time), view.get(time));
+            for (Task task : expected.get(time)) {
+                Assert.assertTrue(view.get(time).contains(task));
+            }
+        }
+        Assert.assertFalse(view.containsKey("time"));
+        Assert.assertTrue(view.subMap(end.plusDays(1), end.plusDays(2)).isEmpty());
+    }
+
+    @Test
+    public void part3_testEqualTasks() {
+        AbstractTaskList list = TaskListFactory.createTaskList(ListTypes.types.LINKED);
+        for (int i = 0; i < 3; i++) {
+            Task task = new Task("Same", NOW.plusMinutes(10), NOW.plusHours(1), 600);
+            task.setActive(true);
+            list.add(task);
+        }
+        CompactCalendar compact = Tasks.compactCalendar(list, NOW, NOW.plusHours(2));
+        Assert.assertEquals(Tasks.calendar(list, NOW, NOW.plusHours(2)), compact.asSortedMap());
+        Assert.assertEquals(6, compact.size());
+        Assert.assertEquals(1, compact.taskCountAt(0));
+        Assert.assertSame(list.getTask(0), compact.tasksAt(0).get(0));
+        Assert.assertEquals(NOW.plusMinutes(10), compact.timeAt(0));
+        Assert.assertEquals(0, compact.indexOf(NOW.plusMinutes(10)));
+        Assert.assertTrue(compact.indexOf(NOW) < 0);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void part4_testReadOnly() {
+        AbstractTaskList list = createList(ListTypes.types.ARRAY, 100, 8);
+        Tasks.compactCalendar(list, NOW, NOW.plusDays(1)).asSortedMap().clear();
+    }
+}
@@ -0,0 +1,77 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.CompactTask;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import static com.netcracker.eductr.tasks.tests.utils.DatesTimes.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_CompactTaskTest {
+
+    private static LocalDateTime time(Random random) {
+        return NOW.plusSeconds(random.nextInt(10000)).withNano(random.nextInt(2) * 500_000_000);
+    }
+
+    @Test
+    public void part1_testNextTimeAfterLikeTask() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            LocalDateTime start = time(random);
+            Task task = random.nextBoolean()
+                    ? new Task("T", start)
+                    : new Task("T", start, start.plusSeconds(random.nextInt(5000)), 1 + random.nextInt(700));
+            task.setActive(random.nextInt(10) > 0);
+            CompactTask compact = new CompactTask(task);
+            Assert.assertEquals(task.getStartTime(), compact.getStartTime());
+            Assert.assertEquals(task.getEndTime(), compact.getEndTime());
+            Assert.assertEquals(task.getRepeatInterval(), compact.getRepeatInterval());
+            for (int j = 0; j < 20; j++) {
+                LocalDateTime current = time(random);
+                Assert.assertEquals(task + " after " + current,
+                        task.nextTimeAfter(current), compact.nextTimeAfter(current));
+            }
+        }
+    }
+
+    @Test
+    public void part2_testApi() {
+        CompactTask task = new CompactTask("A", NOW, NOW.plusHours(1), 600);
+        task.setActive(true);
+        Assert.assertTrue(task.isRepeated());
+        Assert.assertEquals(NOW, task.getTime());
+        Assert.assertEquals(NOW.plusMinutes(10), task.nextTimeAfter(NOW));
+        Assert.assertNull(task.nextTimeAfter(NOW.plusHours(1)));
+
+        CompactTask clone = task.clone();
+        Assert.assertEquals(task, clone);
+        Assert.assertEquals(task.hashCode(), clone.hashCode());
+        clone.setTime(NOW);
+        Assert.assertNotEquals(task, clone);
+        Assert.assertFalse(clone.isRepeated());
+        Assert.assertEquals(0, clone.getRepeatInterval());
+        Assert.assertEquals(NOW, clone.getEndTime());
+        Assert.assertNotEquals(new Task("A", NOW), new CompactTask("A", NOW));
+    }
+
+    @Test
+    public void part3_testFarFuture() {
+        LocalDateTime start = LocalDateTime.MAX.minusYears(100);
+        CompactTask task = new CompactTask("A", start, LocalDateTime.MAX, Integer.MAX_VALUE);
+        task.setActive(true);
+        Assert.assertEquals(start.plusSeconds(Integer.MAX_VALUE), task.nextTimeAfter(start));
+        Assert.assertNull(task.nextTimeAfter(LocalDateTime.MAX.minusYears(1)));
+        Assert.assertNull(task.nextTimeAfter(LocalDateTime.MAX));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void part4_testWrongInterval() {
+        new CompactTask("A", NOW, NOW.plusHours(1), 0);
+    }
+}
@@ -0,0 +1,154 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.ConcurrentTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static com.netcracker.eductr.tasks.tests.utils.DatesTimes.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_ConcurrentTaskListTest {
+
+    @Test
+    public void part1_testSingleThread() {
+        ConcurrentTaskList list = new ConcurrentTaskList();
+        Task a = new Task("A", NOW);
+        Task b = new Task("B", FROM_NOW_1);
+        list.add(a);
+        list.add(b);
+        Assert.assertEquals(2, list.size());
+        Assert.assertEquals(b, list.getTask(1));
+
+        Iterator<Task> it = list.iterator();
+        it.next();
+        it.remove();
+        Assert.assertEquals(1, list.size());
+        Assert.assertEquals(b, list.getTask(0));
+        Assert.assertTrue(it.hasNext());
+        Assert.assertEquals(list, list.clone());
+    }
+
+    @Test(timeout = 10000)
+    public void part2_testReadersAndWriter() throws Exception {
+        ConcurrentTaskList list = new ConcurrentTaskList();
+        int readers = 4;
+        ExecutorService pool = Executors.newFixedThreadPool(readers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<?> writer = pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 20000; i++) {
+                    Task task = new Task("T" + i, NOW.plusSeconds(i));
+                    list.add(task);
+                    if (i % 2 == 1) {
+                        list.remove(task);
+                    }
+                }
+                return null;
+            });
+            Future<?>[] results = new Future<?>[readers];
+            for (int r = 0; r < readers; r++) {
+                results[r] = pool.submit(() -> {
+                    start.await();
+                    while (!writer.isDone()) {
+                        int size = list.size();
+                        if (size > 0) {
+                            Assert.assertNotNull(list.getTask(size - 1));
+                        }
+                        for (Task task : list) {
+                            Assert.assertNotNull(task);
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            writer.get();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        Assert.assertEquals(10000, list.size());
+        Assert.assertEquals(10000, list.getStream().count());
+    }
+
+    @Test
+    public void part3_testIteratorRemovesByPosition() {
+        ConcurrentTaskList list = new ConcurrentTaskList();
+        Task a = new Task("A", NOW);
+        Task b = new Task("B", FROM_NOW_1);
+        Task c = new Task("C", FROM_NOW_25);
+        list.add(a);
+        list.add(b);
+        list.add(a.clone());
+        list.add(c);
+
+        Iterator<Task> it = list.iterator();
+        it.next();
+        it.next();
+        it.next();
+        it.remove();
+        Assert.assertEquals(3, list.size());
+        Assert.assertEquals(a, list.getTask(0));
+        Assert.assertEquals(b, list.getTask(1));
+        Assert.assertEquals(c, list.getTask(2));
+        Assert.assertEquals(c, it.next());
+        it.remove();
+        Assert.assertFalse(it.hasNext());
+        Assert.assertEquals(2, list.size());
+        Assert.assertEquals(b, list.getTask(1));
+
+        // A removal by another caller moves the tasks.
+        list.add(c);
+        it = list.iterator();
+        Assert.assertEquals(a, it.next());
+        list.remove(c);
+        list.add(c);
+        try {
+            it.remove();
+            Assert.fail();
+        } catch (ConcurrentModificationException e) {
+            // expected
+        }
+        Assert.assertEquals(3, list.size());
+        Assert.assertEquals(b, it.next());
+        Assert.assertEquals(c, it.next());
+    }
+
+    @Test
+    public void part4_testSnapshots() {
+        ConcurrentTaskList list = new ConcurrentTaskList();
+        for (int i = 0; i < 10; i++) {
+            list.add(new Task("T" + i, NOW.plusSeconds(i)));
+        }
+        Iterator<Task> it = list.iterator();
+        Stream<Task> stream = list.getStream();
+        Assert.assertTrue(list.removeIf(task -> task.getTitle().compareTo("T5") < 0));
+        list.add(new Task("T10", NOW.plusSeconds(10)));
+        Assert.assertEquals(6, list.size());
+        Assert.assertEquals("T5", list.getTask(0).getTitle());
+
+        int count = 0;
+        while (it.hasNext()) {
+            Assert.assertEquals("T" + count++, it.next().getTitle());
+        }
+        Assert.assertEquals(10, count);
+        Assert.assertEquals(10, stream.count());
+        Assert.assertFalse(list.removeIf(task -> false));
+    }
+}
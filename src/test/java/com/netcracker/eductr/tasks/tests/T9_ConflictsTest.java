@@ -0,0 +1,166 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.AbstractTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.Conflict;
+import ua.edu.sumdu.j2se.kush.tasks.ListTypes;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+import ua.edu.sumdu.j2se.kush.tasks.TaskListFactory;
+import ua.edu.sumdu.j2se.kush.tasks.Tasks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.SortedMap;
+
+import static com.netcracker.eductr.tasks.tests.utils.DatesTimes.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_ConflictsTest {
+
+    private static AbstractTaskList createList(int size, long seed) {
+        Random random = new Random(seed);
+        AbstractTaskList list = TaskListFactory.createTaskList(ListTypes.types.ARRAY);
+        for (int i = 0; i < size; i++) {
+            LocalDateTime start = NOW.plusSeconds(random.nextInt(20000))
+                    .withNano(random.nextInt(2) * 500_000_000);
+            Task task = random.nextInt(4) == 0
+                    ? new Task("T" + i, start)
+                    : new Task("T" + i, start, start.plusSeconds(random.nextInt(20000)),
+                    1 + random.nextInt(random.nextBoolean() ? 60 : 3000));
+            task.setActive(random.nextInt(5) > 0);
+            list.add(task);
+        }
+        return list;
+    }
+
+    private static String key(LocalDateTime time, Task task) {
+        return time + "@" + System.identityHashCode(task);
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            i = parent[i] = parent[parent[i]];
+        }
+        return i;
+    }
+
+    /**
+     * Groups all the runs by pairs of different tasks within the tolerance.
+     */
+    private static Set<List<String>> expected(Iterable<Task> tasks, LocalDateTime start,
+                                              LocalDateTime end, Duration tolerance) {
+        List<Map.Entry<LocalDateTime, Task>> runs = new ArrayList<>();
+        for (Iterator<Map.Entry<LocalDateTime, Task>> itr = Tasks.occurrences(tasks, start, end);
+             itr.hasNext(); ) {
+            runs.add(itr.next());
+        }
+        int[] parent = new int[runs.size()];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        boolean[] linked = new boolean[runs.size()];
+        for (int i = 0; i < runs.size(); i++) {
+            LocalDateTime limit = runs.get(i).getKey().plus(tolerance);
+            for (int j = i + 1; j < runs.size() && !runs.get(j).getKey().isAfter(limit); j++) {
+                if (runs.get(i).getValue() != runs.get(j).getValue()) {
+                    parent[find(parent, i)] = find(parent, j);
+                    linked[i] = linked[j] = true;
+                }
+            }
+        }
+        Map<Integer, List<String>> groups = new java.util.HashMap<>();
+        for (int i = 0; i < runs.size(); i++) {
+            if (linked[i]) {
+                groups.computeIfAbsent(find(parent, i), k -> new ArrayList<>())
+                        .add(key(runs.get(i).getKey(), runs.get(i).getValue()));
+            }
+        }
+        return new HashSet<>(groups.values());
+    }
+
+    private static Set<List<String>> actual(Iterable<Task> tasks, LocalDateTime start,
+                                            LocalDateTime end, Duration tolerance) {
+        Set<List<String>> groups = new HashSet<>();
+        LocalDateTime previousEnd = null;
+        for (Iterator<Conflict> itr = Tasks.conflicts(tasks, start, end, tolerance); itr.hasNext(); ) {
+            Conflict conflict = itr.next();
+            Assert.assertTrue(conflict.getTasks().size() > 1);
+            if (previousEnd != null) {
+                Assert.assertFalse(conflict.getEnd().isBefore(previousEnd));
+            }
+            previousEnd = conflict.getEnd();
+            List<String> group = new ArrayList<>();
+            for (Map.Entry<LocalDateTime, Task> run : conflict.getRuns()) {
+                group.add(key(run.getKey(), run.getValue()));
+            }
+            Assert.assertTrue(groups.add(group));
+        }
+        return groups;
+    }
+
+    @Test
+    public void part1_testSameAsPairs() {
+        Random random = new Random(21);
+        for (int i = 0; i < 40; i++) {
+            AbstractTaskList list = createList(1 + random.nextInt(60), random.nextLong());
+            LocalDateTime start = NOW.plusSeconds(random.nextInt(10000));
+            LocalDateTime end = start.plusSeconds(random.nextInt(20000));
+            Duration tolerance = Duration.ofMillis(random.nextInt(3) * 500L * random.nextInt(20));
+            Assert.assertEquals(tolerance.toString(), expected(list, start, end, tolerance),
+                    actual(list, start, end, tolerance));
+        }
+    }
+
+    @Test
+    public void part2_testSameInstant() {
+        AbstractTaskList list = createList(200, 22);
+        LocalDateTime end = NOW.plusHours(6);
+        SortedMap<LocalDateTime, Set<Task>> calendar = Tasks.calendar(list, NOW, end);
+        int expected = 0;
+        for (Set<Task> tasks : calendar.values()) {
+            if (tasks.size() > 1) {
+                expected++;
+            }
+        }
+        int count = 0;
+        for (Iterator<Conflict> itr = Tasks.conflicts(list, NOW, end, Duration.ZERO); itr.hasNext(); ) {
+            Conflict conflict = itr.next();
+            Assert.assertEquals(conflict.getStart(), conflict.getEnd());
+            Assert.assertEquals(calendar.get(conflict.getStart()), new HashSet<>(conflict.getTasks()));
+            count++;
+        }
+        Assert.assertEquals(expected, count);
+    }
+
+    @Test
+    public void part3_testNeverMeet() {
+        AbstractTaskList list = TaskListFactory.createTaskList(ListTypes.types.LINKED);
+        Task a = new Task("A", NOW, NOW.plusDays(365), 10);
+        Task b = new Task("B", NOW.plusSeconds(2), NOW.plusDays(365), 15);
+        a.setActive(true);
+        b.setActive(true);
+        list.add(a);
+        list.add(b);
+        Assert.assertFalse(Tasks.conflicts(list, NOW, NOW.plusDays(365), Duration.ofSeconds(1)).hasNext());
+        Iterator<Conflict> itr = Tasks.conflicts(list, NOW, NOW.plusDays(1), Duration.ofSeconds(2));
+        Conflict first = itr.next();
+        Assert.assertEquals(2, first.getRuns().size());
+        Assert.assertEquals(NOW.plusSeconds(30), first.getStart());
+        Assert.assertEquals(NOW.plusSeconds(32), first.getEnd());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void part4_testNegativeTolerance() {
+        Tasks.conflicts(createList(2, 1), NOW, NOW.plusDays(1), Duration.ofSeconds(-1));
+    }
+}
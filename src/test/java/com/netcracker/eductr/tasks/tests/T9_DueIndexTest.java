@@ -0,0 +1,177 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.ArrayTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.DueIndex;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+import ua.edu.sumdu.j2se.kush.tasks.Tasks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.netcracker.eductr.tasks.tests.utils.DatesTimes.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_DueIndexTest {
+
+    private static Task randomTask(Random random) {
+        LocalDateTime start = NOW.plusSeconds(random.nextInt(5000));
+        Task task = random.nextInt(3) == 0
+                ? new Task("T", start)
+                : new Task("T", start, start.plusSeconds(random.nextInt(5000)), 1 + random.nextInt(300));
+        task.setActive(random.nextInt(6) > 0);
+        return task;
+    }
+
+    private static List<LocalDateTime> times(List<Map.Entry<LocalDateTime, Task>> runs) {
+        List<LocalDateTime> times = new ArrayList<>();
+        for (Map.Entry<LocalDateTime, Task> run : runs) {
+            times.add(run.getKey());
+        }
+        return times;
+    }
+
+    private static List<LocalDateTime> expected(Iterable<Task> tasks, LocalDateTime from,
+                                                LocalDateTime to, int limit) {
+        List<LocalDateTime> times = new ArrayList<>();
+        Iterator<Map.Entry<LocalDateTime, Task>> it = Tasks.occurrences(tasks, from, to);
+        while (it.hasNext() && times.size() < limit) {
+            times.add(it.next().getKey());
+        }
+        return times;
+    }
+
+    private static List<LocalDateTime> firsts(Iterable<Task> tasks, int limit) {
+        List<LocalDateTime> firsts = new ArrayList<>();
+        for (Task task : tasks) {
+            if (task.nextTimeAfter(NOW) != null) {
+                firsts.add(task.nextTimeAfter(NOW));
+            }
+        }
+        firsts.sort(null);
+        return firsts.subList(0, Math.min(limit, firsts.size()));
+    }
+
+    @Test
+    public void part1_testPeekNext() {
+        Random random = new Random(1);
+        ArrayTaskList list = new ArrayTaskList();
+        for (int i = 0; i < 500; i++) {
+            list.add(randomTask(random));
+        }
+        DueIndex index = new DueIndex(list, NOW);
+        Assert.assertEquals(500, index.size());
+        List<Map.Entry<LocalDateTime, Task>> next = index.peekNext(50);
+        Assert.assertEquals(50, next.size());
+        for (int i = 1; i < next.size(); i++) {
+            Assert.assertFalse(next.get(i).getKey().isBefore(next.get(i - 1).getKey()));
+        }
+        for (Map.Entry<LocalDateTime, Task> run : next) {
+            Assert.assertEquals(run.getValue().nextTimeAfter(NOW), run.getKey());
+        }
+        Assert.assertEquals(firsts(list, 50), times(next));
+        Assert.assertEquals(next, index.peekNext(50));
+    }
+
+    @Test
+    public void part2_testPollDue() {
+        Random random = new Random(2);
+        ArrayTaskList list = new ArrayTaskList();
+        for (int i = 0; i < 300; i++) {
+            list.add(randomTask(random));
+        }
+        DueIndex index = new DueIndex(list, NOW);
+        List<LocalDateTime> polled = new ArrayList<>();
+        for (LocalDateTime time = NOW; time.isBefore(NOW.plusSeconds(12000));
+             time = time.plusSeconds(random.nextInt(600))) {
+            List<Map.Entry<LocalDateTime, Task>> due = index.pollDue(time);
+            for (Map.Entry<LocalDateTime, Task> run : due) {
+                Assert.assertFalse(run.getKey().isAfter(time));
+            }
+            polled.addAll(times(due));
+            Assert.assertEquals(time, index.now());
+        }
+        polled.addAll(times(index.pollDue(NOW.plusSeconds(12000))));
+        Assert.assertEquals(expected(list, NOW, NOW.plusSeconds(12000), Integer.MAX_VALUE), polled);
+        Assert.assertTrue(index.peekNext(1).isEmpty());
+    }
+
+    @Test
+    public void part3_testUpdates() {
+        Random random = new Random(3);
+        ArrayTaskList list = new ArrayTaskList();
+        for (int i = 0; i < 200; i++) {
+            list.add(randomTask(random));
+        }
+        DueIndex index = new DueIndex(list, NOW);
+        for (int i = 0; i < 2000; i++) {
+            Task task = list.getTask(random.nextInt(list.size()));
+            switch (random.nextInt(4)) {
+                case 0:
+                    task.setActive(!task.isActive());
+                    break;
+                case 1:
+                    task.setTime(NOW.plusSeconds(random.nextInt(5000)));
+                    break;
+                case 2:
+                    LocalDateTime start = NOW.plusSeconds(random.nextInt(5000));
+                    task.setTime(start, start.plusSeconds(random.nextInt(5000)), 1 + random.nextInt(300));
+                    break;
+                default:
+                    Assert.assertTrue(index.remove(task));
+                    Assert.assertFalse(index.contains(task));
+                    index.add(task);
+                    Assert.assertTrue(index.contains(task));
+                    continue;
+            }
+            Assert.assertTrue(index.update(task));
+            Assert.assertEquals(task.nextTimeAfter(NOW), index.nextTime(task));
+            Assert.assertEquals(firsts(list, 20), times(index.peekNext(20)));
+        }
+    }
+
+    @Test
+    public void part4_testAddRemove() {
+        ArrayTaskList list = new ArrayTaskList();
+        DueIndex index = new DueIndex(list, NOW);
+        Task a = new Task("A", NOW.plusHours(2));
+        Task b = new Task("B", NOW.minusHours(1), NOW.plusHours(5), 3600);
+        Task c = new Task("C", NOW.plusHours(1));
+        a.setActive(true);
+        b.setActive(true);
+        index.add(a);
+        index.add(b);
+        index.add(c);
+        Assert.assertEquals(3, index.size());
+        Assert.assertNull(index.nextTime(c));
+        Assert.assertEquals(NOW.plusHours(2), index.nextTime(a));
+        Assert.assertEquals(NOW.plusHours(1), index.nextTime(b));
+        Assert.assertSame(b, index.peekNext(1).get(0).getValue());
+
+        c.setActive(true);
+        index.update(c);
+        Assert.assertSame(b, index.peekNext(3).get(0).getValue());
+        Assert.assertSame(c, index.peekNext(3).get(1).getValue());
+        Assert.assertSame(a, index.peekNext(3).get(2).getValue());
+
+        Assert.assertTrue(index.remove(b));
+        Assert.assertFalse(index.remove(b));
+        Assert.assertFalse(index.update(b));
+        Assert.assertSame(c, index.peekNext(1).get(0).getValue());
+        Assert.assertEquals(2, index.pollDue(NOW.plusHours(3)).size());
+        Assert.assertEquals(2, index.size());
+        Assert.assertNull(index.nextTime(a));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void part5_testNullTask() {
+        new DueIndex(new ArrayTaskList(), NOW).add(null);
+    }
+}
@@ -0,0 +1,147 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.FiringExecutor;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+import ua.edu.sumdu.j2se.kush.tasks.TaskScheduler;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.netcracker.eductr.tasks.tests.utils.DatesTimes.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_FiringExecutorTest {
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void part1_testBoundedConcurrency() throws InterruptedException {
+        FiringExecutor executor = new FiringExecutor(Thread::new, 4);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        for (int i = 0; i < 50; i++) {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(5);
+                running.decrementAndGet();
+            });
+        }
+        Assert.assertTrue(executor.awaitIdle(10, TimeUnit.SECONDS));
+        Assert.assertEquals(0, executor.pending());
+        Assert.assertTrue(maxRunning.get() <= 4);
+    }
+
+    @Test
+    public void part2_testPerTaskOrder() throws InterruptedException {
+        FiringExecutor executor = new FiringExecutor(Thread::new, 8);
+        Task a = new Task("A", NOW);
+        Task b = new Task("B", NOW);
+        List<Integer> runsA = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> runsB = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 100; i++) {
+            int run = i;
+            executor.execute(a, () -> {
+                sleep(run % 3);
+                runsA.add(run);
+            });
+            executor.execute(b, () -> {
+                runsB.add(run);
+                if (run == 50) {
+                    throw new IllegalStateException("A failed firing does not stop the task");
+                }
+            });
+        }
+        Assert.assertTrue(executor.awaitIdle(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(i, (int) runsA.get(i));
+            Assert.assertEquals(i, (int) runsB.get(i));
+        }
+    }
+
+    @Test
+    public void part3_testScheduler() throws InterruptedException {
+        FiringExecutor executor = new FiringExecutor(Thread::new, 2);
+        LocalDateTime t0 = LocalDateTime.of(2030, 1, 1, 0, 0);
+        TaskScheduler scheduler = new TaskScheduler(executor,
+                Clock.fixed(t0.toInstant(ZoneOffset.UTC), ZoneOffset.UTC), 1);
+        List<LocalDateTime> fired = Collections.synchronizedList(new ArrayList<>());
+        scheduler.addListener((task, time) -> {
+            sleep(1);
+            fired.add(time);
+        });
+        Task task = new Task("A", t0.plusSeconds(1), t0.plusSeconds(30), 1);
+        task.setActive(true);
+        scheduler.schedule(task);
+        scheduler.advanceTo(t0.plusMinutes(1));
+        Assert.assertTrue(executor.awaitIdle(10, TimeUnit.SECONDS));
+        Assert.assertEquals(30, fired.size());
+        for (int i = 0; i < 30; i++) {
+            Assert.assertEquals(t0.plusSeconds(i + 1), fired.get(i));
+        }
+    }
+
+    @Test
+    public void part4_testErrorInFiring() throws InterruptedException {
+        List<Throwable> reported = Collections.synchronizedList(new ArrayList<>());
+        FiringExecutor executor = new FiringExecutor(body -> {
+            Thread thread = new Thread(body);
+            thread.setUncaughtExceptionHandler((t, e) -> reported.add(e));
+            return thread;
+        }, 2);
+        Task task = new Task("A", NOW);
+        AtomicInteger runs = new AtomicInteger();
+        executor.execute(task, () -> {
+            runs.incrementAndGet();
+            throw new AssertionError("A failed firing");
+        });
+        Assert.assertTrue(executor.awaitIdle(10, TimeUnit.SECONDS));
+        executor.execute(task, runs::incrementAndGet);
+        Assert.assertTrue(executor.awaitIdle(10, TimeUnit.SECONDS));
+        Assert.assertEquals(2, runs.get());
+        Assert.assertEquals(0, executor.pending());
+        Assert.assertEquals(1, reported.size());
+        Assert.assertTrue(reported.get(0) instanceof AssertionError);
+    }
+
+    @Test
+    public void part5_testFailedThreadStart() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        FiringExecutor executor = new FiringExecutor(
+                body -> calls.incrementAndGet() % 2 == 1 ? null : new Thread(body), 2);
+        Task task = new Task("A", NOW);
+        AtomicInteger runs = new AtomicInteger();
+        try {
+            executor.execute(task, runs::incrementAndGet);
+            Assert.fail("The thread factory has not created a thread.");
+        } catch (IllegalStateException expected) {
+            // the firing is not pending
+        }
+        Assert.assertEquals(0, executor.pending());
+        executor.execute(task, runs::incrementAndGet);
+        Assert.assertTrue(executor.awaitIdle(10, TimeUnit.SECONDS));
+        try {
+            executor.execute(runs::incrementAndGet);
+            Assert.fail("The thread factory has not created a thread.");
+        } catch (IllegalStateException expected) {
+            // the firing is not pending
+        }
+        Assert.assertEquals(0, executor.pending());
+        Assert.assertEquals(1, runs.get());
+    }
+}
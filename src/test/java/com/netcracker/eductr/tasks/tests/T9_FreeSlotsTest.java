@@ -0,0 +1,126 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.AbstractTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.FreeSlot;
+import ua.edu.sumdu.j2se.kush.tasks.ListTypes;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+import ua.edu.sumdu.j2se.kush.tasks.TaskListFactory;
+import ua.edu.sumdu.j2se.kush.tasks.Tasks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.netcracker.eductr.tasks.tests.utils.DatesTimes.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_FreeSlotsTest {
+
+    private static AbstractTaskList createList(int size, long seed) {
+        Random random = new Random(seed);
+        AbstractTaskList list = TaskListFactory.createTaskList(ListTypes.types.ARRAY);
+        for (int i = 0; i < size; i++) {
+            LocalDateTime start = NOW.plusMinutes(random.nextInt(600) - 60);
+            Task task = random.nextInt(3) == 0
+                    ? new Task("T" + i, start)
+                    : new Task("T" + i, start, start.plusMinutes(random.nextInt(600)),
+                    60 * (1 + random.nextInt(120)));
+            task.setActive(random.nextInt(5) > 0);
+            list.add(task);
+        }
+        return list;
+    }
+
+    private static List<String> slots(Iterator<FreeSlot> slots) {
+        List<String> list = new ArrayList<>();
+        while (slots.hasNext()) {
+            FreeSlot slot = slots.next();
+            Assert.assertEquals(Duration.between(slot.getStart(), slot.getEnd()), slot.getDuration());
+            list.add(slot.getStart() + " - " + slot.getEnd());
+        }
+        return list;
+    }
+
+    @Test
+    public void part1_testInstantRuns() {
+        AbstractTaskList list = createList(30, 41);
+        List<LocalDateTime> times = new ArrayList<>();
+        times.add(NOW);
+        for (Iterator<Map.Entry<LocalDateTime, Task>> itr = Tasks.occurrences(list, NOW, NOW.plusHours(20));
+             itr.hasNext(); ) {
+            times.add(itr.next().getKey());
+        }
+        times.add(NOW.plusHours(20));
+        List<String> expected = new ArrayList<>();
+        for (int i = 1; i < times.size(); i++) {
+            if (Duration.between(times.get(i - 1), times.get(i)).toMinutes() >= 15) {
+                expected.add(times.get(i - 1) + " - " + times.get(i));
+            }
+        }
+        Assert.assertEquals(expected, slots(Tasks.freeSlots(list, NOW, NOW.plusHours(20),
+                Duration.ofMinutes(15))));
+    }
+
+    @Test
+    public void part2_testDurations() {
+        Random random = new Random(42);
+        int minutes = 1200;
+        for (int i = 0; i < 50; i++) {
+            AbstractTaskList list = createList(1 + random.nextInt(15), random.nextLong());
+            int duration = 1 + random.nextInt(30);
+            int minLength = 1 + random.nextInt(60);
+
+            // A minute is busy if a run is no more than the duration earlier.
+            boolean[] busy = new boolean[minutes];
+            for (Task task : list) {
+                for (LocalDateTime t = task.nextTimeAfter(NOW.minusDays(1)); t != null
+                        && t.isBefore(NOW.plusMinutes(minutes)); t = task.nextTimeAfter(t)) {
+                    long m = Duration.between(NOW, t).toMinutes();
+                    for (long k = Math.max(0, m); k < Math.min(minutes, m + duration); k++) {
+                        busy[(int) k] = true;
+                    }
+                }
+            }
+            List<String> expected = new ArrayList<>();
+            int from = 0;
+            for (int m = 0; m <= minutes; m++) {
+                if (m == minutes || busy[m]) {
+                    if (m - from >= minLength) {
+                        expected.add(NOW.plusMinutes(from) + " - " + NOW.plusMinutes(m));
+                    }
+                    from = m + 1;
+                }
+            }
+            Assert.assertEquals(expected, slots(Tasks.freeSlots(list, NOW, NOW.plusMinutes(minutes),
+                    Duration.ofMinutes(minLength), Duration.ofMinutes(duration))));
+        }
+    }
+
+    @Test
+    public void part3_testBusyAtStart() {
+        AbstractTaskList list = TaskListFactory.createTaskList(ListTypes.types.LINKED);
+        Task task = new Task("Meeting", NOW.minusMinutes(30), NOW.plusDays(30), 3600);
+        task.setActive(true);
+        list.add(task);
+        Iterator<FreeSlot> slots = Tasks.freeSlots(list, NOW, NOW.plusDays(30), Duration.ofMinutes(15),
+                Duration.ofMinutes(45));
+        FreeSlot first = slots.next();
+        Assert.assertEquals(NOW.plusMinutes(15), first.getStart());
+        Assert.assertEquals(NOW.plusMinutes(30), first.getEnd());
+        Assert.assertFalse(Tasks.freeSlots(list, NOW, NOW.plusDays(30), Duration.ofMinutes(16),
+                Duration.ofMinutes(45)).hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void part4_testZeroLength() {
+        Tasks.freeSlots(createList(1, 1), NOW, NOW.plusDays(1), Duration.ZERO);
+    }
+}
@@ -0,0 +1,166 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.AbstractTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.ArrayTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.CompactTask;
+import ua.edu.sumdu.j2se.kush.tasks.ListTypes;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+import ua.edu.sumdu.j2se.kush.tasks.TaskListFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.netcracker.eductr.tasks.tests.utils.DatesTimes.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_FrozenTaskTest {
+
+    private static List<Task> tasks(int n, boolean frozen) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Task task = new Task("T" + i, NOW.plusSeconds(i), NOW.plusHours(1), 60 + i);
+            task.setActive(i % 2 == 0);
+            tasks.add(frozen ? task.freeze() : task);
+        }
+        return tasks;
+    }
+
+    @Test
+    public void part1_testFreeze() {
+        Task task = new Task("A", NOW);
+        int hash = task.hashCode();
+        Assert.assertFalse(task.isFrozen());
+        Assert.assertSame(task, task.freeze());
+        Assert.assertTrue(task.isFrozen());
+        Assert.assertEquals(hash, task.hashCode());
+        Assert.assertEquals(new Task("A", NOW), task);
+        Assert.assertTrue(task.clone().isFrozen());
+        try {
+            task.setTitle("B");
+            Assert.fail("A frozen task cannot be changed");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            task.setTime(NOW, NOW.plusHours(1), 60);
+            Assert.fail("A frozen task cannot be changed");
+        } catch (IllegalStateException expected) {
+        }
+        Assert.assertEquals("A", task.getTitle());
+        Assert.assertFalse(task.isRepeated());
+
+        CompactTask compact = new CompactTask("A", NOW);
+        hash = compact.hashCode();
+        compact.freeze();
+        Assert.assertEquals(hash, compact.hashCode());
+        try {
+            compact.setTime(NOW.plusHours(1));
+            Assert.fail("A frozen task cannot be changed");
+        } catch (IllegalStateException expected) {
+        }
+        Assert.assertEquals(NOW, compact.getTime());
+    }
+
+    @Test
+    public void part2_testListHash() {
+        List<Task> frozen = tasks(100, true);
+        List<Task> mutable = tasks(100, false);
+        for (ListTypes.types type : ListTypes.types.values()) {
+            AbstractTaskList a = TaskListFactory.createTaskList(type);
+            AbstractTaskList b = TaskListFactory.createTaskList(type);
+            a.addAll(frozen);
+            b.addAll(mutable);
+            Assert.assertEquals(type.name(), a, b);
+            Assert.assertEquals(type.name(), a.hashCode(), b.hashCode());
+
+            a.remove(frozen.get(10));
+            a.removeIf(t -> t.getTitle().endsWith("7"));
+            b.remove(mutable.get(10));
+            b.removeIf(t -> t.getTitle().endsWith("7"));
+            Assert.assertEquals(type.name(), a.hashCode(), b.hashCode());
+
+            AbstractTaskList c = TaskListFactory.createTaskList(type);
+            c.addAll(a);
+            c.remove(frozen.get(20));
+            c.add(new Task("X", NOW).freeze());
+            Assert.assertNotEquals(type.name(), a, c);
+
+            a.removeIf(t -> true);
+            a.add(frozen.get(0));
+            b.removeIf(t -> true);
+            b.add(mutable.get(0));
+            Assert.assertEquals(type.name(), a.hashCode(), b.hashCode());
+        }
+    }
+
+    /**
+     * A task that counts the calls of {@link #hashCode()}.
+     */
+    private static class CountingTask extends Task {
+
+        private int calls;
+
+        CountingTask(String title) {
+            super(title, NOW);
+        }
+
+        @Override
+        public int hashCode() {
+            calls++;
+            return super.hashCode();
+        }
+    }
+
+    @Test
+    public void part3_testFrozenAfterAdding() {
+        for (ListTypes.types type : ListTypes.types.values()) {
+            // The concurrent list hashes its tasks every time, the columnar
+            // and off-heap lists do not keep the task instances.
+            int calls = type == ListTypes.types.CONCURRENT ? 1 : 0;
+            AbstractTaskList list = TaskListFactory.createTaskList(type);
+            CountingTask late = new CountingTask("A");
+            list.add(late);
+            late.freeze();
+            CountingTask early = new CountingTask("B");
+            early.freeze();
+            list.add(early);
+            list.add(new Task("C", NOW).freeze());
+            Assert.assertTrue(type.name(), list.remove(late));
+
+            // Only the tasks frozen before they were added are left.
+            early.calls = 0;
+            int hash = list.hashCode();
+            Assert.assertEquals(type.name(), calls, early.calls);
+            AbstractTaskList mutable = TaskListFactory.createTaskList(type);
+            mutable.add(new CountingTask("B"));
+            mutable.add(new Task("C", NOW));
+            Assert.assertEquals(type.name(), mutable.hashCode(), hash);
+            Assert.assertEquals(type.name(), mutable, list);
+
+            // A task frozen in one list is not counted by the others.
+            AbstractTaskList other = TaskListFactory.createTaskList(type);
+            other.add(late);
+            other.add(early);
+            mutable.remove(new Task("C", NOW));
+            mutable.add(new CountingTask("A"));
+            Assert.assertEquals(type.name(), mutable.hashCode(), other.hashCode());
+            Assert.assertTrue(type.name(), other.remove(late));
+            early.calls = 0;
+            other.hashCode();
+            Assert.assertEquals(type.name(), calls, early.calls);
+        }
+
+        // A clone counts its tasks once.
+        ArrayTaskList array = new ArrayTaskList();
+        array.add(new CountingTask("A").freeze());
+        array.add(new CountingTask("B").freeze());
+        ArrayTaskList clone = array.clone();
+        CountingTask copy = (CountingTask) clone.getTask(0);
+        copy.calls = 0;
+        Assert.assertEquals(array.hashCode(), clone.hashCode());
+        Assert.assertEquals(0, copy.calls);
+    }
+}
@@ -0,0 +1,87 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.AbstractTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.ListTypes;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+import ua.edu.sumdu.j2se.kush.tasks.TaskListFactory;
+import ua.edu.sumdu.j2se.kush.tasks.Tasks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import static com.netcracker.eductr.tasks.tests.utils.DatesTimes.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_HistogramTest {
+
+    private static AbstractTaskList createList(ListTypes.types type, int size, long seed) {
+        Random random = new Random(seed);
+        AbstractTaskList list = TaskListFactory.createTaskList(type);
+        for (int i = 0; i < size; i++) {
+            LocalDateTime start = NOW.plusSeconds(random.nextInt(100000))
+                    .withNano(random.nextInt(2) * 500_000_000);
+            Task task = random.nextInt(4) == 0
+                    ? new Task("T" + i, start)
+                    : new Task("T" + i, start, start.plusSeconds(random.nextInt(100000)),
+                    1 + random.nextInt(random.nextBoolean() ? 600 : 20000));
+            task.setActive(random.nextInt(5) > 0);
+            list.add(task);
+        }
+        return list;
+    }
+
+    private static long[] expected(Iterable<Task> tasks, LocalDateTime start, LocalDateTime end,
+                                   Duration bucket) {
+        long length = Duration.between(start, end).toNanos();
+        long[] counts = new long[end.isAfter(start) ? (int) ((length - 1) / bucket.toNanos() + 1) : 0];
+        for (Iterator<Map.Entry<LocalDateTime, Task>> itr = Tasks.occurrences(tasks, start, end);
+             itr.hasNext(); ) {
+            long offset = Duration.between(start, itr.next().getKey()).toNanos();
+            counts[(int) ((offset - 1) / bucket.toNanos())]++;
+        }
+        return counts;
+    }
+
+    @Test
+    public void part1_testSameAsOccurrences() {
+        Random random = new Random(12);
+        for (ListTypes.types type : ListTypes.types.values()) {
+            AbstractTaskList list = createList(type, 300, random.nextLong());
+            for (int i = 0; i < 20; i++) {
+                LocalDateTime start = NOW.plusSeconds(random.nextInt(50000));
+                LocalDateTime end = start.plusSeconds(random.nextInt(100000));
+                Duration bucket = Duration.ofSeconds(1 + random.nextInt(7200))
+                        .plusNanos(random.nextInt(2) * 250_000_000);
+                long[] expected = expected(list, start, end, bucket);
+                Assert.assertArrayEquals(type.name(), expected, Tasks.histogram(list, start, end, bucket));
+                Assert.assertArrayEquals(type.name(), expected,
+                        Tasks.parallelHistogram(list, start, end, bucket));
+            }
+        }
+    }
+
+    @Test
+    public void part2_testBuckets() {
+        AbstractTaskList list = TaskListFactory.createTaskList(ListTypes.types.ARRAY);
+        Task task = new Task("Every 10 minutes", NOW, NOW.plusDays(1), 600);
+        task.setActive(true);
+        list.add(task);
+        long[] counts = Tasks.histogram(list, NOW, NOW.plusHours(3).plusMinutes(30), Duration.ofHours(1));
+        Assert.assertArrayEquals(new long[]{6, 6, 6, 3}, counts);
+        Assert.assertEquals(0, Tasks.histogram(list, NOW, NOW, Duration.ofHours(1)).length);
+        Assert.assertEquals(Tasks.countOccurrences(list, NOW, NOW.plusDays(2)),
+                Tasks.histogram(list, NOW, NOW.plusDays(2), Duration.ofDays(7))[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void part3_testZeroBucket() {
+        Tasks.histogram(createList(ListTypes.types.ARRAY, 1, 1), NOW, NOW.plusDays(1), Duration.ZERO);
+    }
+}
@@ -0,0 +1,142 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.AbstractTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.ArrayTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.IndexedTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.ListTypes;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+import ua.edu.sumdu.j2se.kush.tasks.TaskListFactory;
+import ua.edu.sumdu.j2se.kush.tasks.Tasks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static com.netcracker.eductr.tasks.tests.utils.DatesTimes.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_IndexedTaskListTest {
+
+    private static Set<String> titles(Iterable<Task> tasks) {
+        Set<String> titles = new HashSet<>();
+        for (Task task : tasks) {
+            titles.add(task.getTitle());
+        }
+        return titles;
+    }
+
+    @Test
+    public void part1_testFactory() {
+        AbstractTaskList list = TaskListFactory.createTaskList(ListTypes.types.INDEXED);
+        Assert.assertTrue("Factory must create IndexedTaskList", list instanceof IndexedTaskList);
+    }
+
+    @Test
+    public void part2_testIncomingMatchesScan() {
+        Random random = new Random(42);
+        IndexedTaskList indexed = new IndexedTaskList();
+        ArrayTaskList plain = new ArrayTaskList();
+        for (int i = 0; i < 500; i++) {
+            LocalDateTime start = NOW.plusSeconds(random.nextInt(10000));
+            Task task = random.nextBoolean()
+                    ? new Task("T" + i, start)
+                    : new Task("T" + i, start, start.plusSeconds(random.nextInt(3000)), 1 + random.nextInt(100));
+            task.setActive(random.nextInt(10) > 0);
+            indexed.add(task);
+            plain.add(task);
+        }
+        for (int i = 0; i < 50; i++) {
+            LocalDateTime from = NOW.plusSeconds(random.nextInt(12000) - 1000);
+            LocalDateTime to = from.plusSeconds(random.nextInt(500));
+            Assert.assertEquals("incoming(" + from + ", " + to + ")",
+                    titles(Tasks.incoming(plain, from, to)), titles(Tasks.incoming(indexed, from, to)));
+        }
+    }
+
+    @Test
+    public void part3_testRemove() {
+        IndexedTaskList list = new IndexedTaskList();
+        Task a = new Task("A", FROM_NOW_10);
+        Task b = new Task("B", FROM_NOW_55);
+        Task c = new Task("C", FROM_NOW_58);
+        a.setActive(true);
+        b.setActive(true);
+        c.setActive(true);
+        list.add(a);
+        list.add(b);
+        list.add(c);
+
+        Assert.assertTrue(list.remove(b));
+        Assert.assertEquals(2, list.size());
+        Assert.assertEquals(c, list.getTask(1));
+        Assert.assertEquals(titles(Collections.singletonList(c)), titles(list.incoming(FROM_NOW_50, FROM_NOW_60)));
+
+        Iterator<Task> it = list.iterator();
+        it.next();
+        it.remove();
+        Assert.assertEquals(1, list.size());
+        Assert.assertTrue(titles(list.incoming(NOW, FROM_NOW_50)).isEmpty());
+    }
+
+    /**
+     * A task that counts the calls of nextTimeAfter.
+     */
+    private static class CountingTask extends Task {
+        private static int calls;
+
+        CountingTask(String title, LocalDateTime start, LocalDateTime end, int interval) {
+            super(title, start, end, interval);
+        }
+
+        @Override
+        public LocalDateTime nextTimeAfter(LocalDateTime current) {
+            calls++;
+            return super.nextTimeAfter(current);
+        }
+    }
+
+    private static List<String> runs(Iterator<Map.Entry<LocalDateTime, Task>> runs) {
+        List<String> list = new ArrayList<>();
+        while (runs.hasNext()) {
+            Map.Entry<LocalDateTime, Task> run = runs.next();
+            list.add(run.getKey() + " " + run.getValue().getTitle());
+        }
+        return list;
+    }
+
+    @Test
+    public void part4_testCalendarIsPruned() {
+        IndexedTaskList indexed = new IndexedTaskList();
+        ArrayTaskList plain = new ArrayTaskList();
+        for (int i = 0; i < 1000; i++) {
+            // The tasks start in reverse order, and every ten tasks run at
+            // the same times.
+            LocalDateTime start = NOW.plusHours(1000 - i / 10);
+            Task task = new CountingTask("T" + i, start, start.plusMinutes(30), 600);
+            task.setActive(true);
+            indexed.add(task);
+            plain.add(task);
+        }
+        LocalDateTime from = NOW.plusHours(950);
+        LocalDateTime to = NOW.plusHours(955);
+        Assert.assertEquals(runs(Tasks.occurrences(plain, from, to)), runs(Tasks.occurrences(indexed, from, to)));
+        Assert.assertEquals(Tasks.calendar(plain, from, to), Tasks.calendar(indexed, from, to));
+        Assert.assertEquals(Tasks.calendarPage(plain, from, to, 5, null).getEntries(),
+                Tasks.calendarPage(indexed, from, to, 5, null).getEntries());
+
+        CountingTask.calls = 0;
+        Assert.assertEquals(20, Tasks.calendar(indexed, from, to).size());
+        // Only the 60 tasks whose span meets the period are looked at.
+        Assert.assertTrue("calls: " + CountingTask.calls, CountingTask.calls < 200);
+    }
+}
@@ -0,0 +1,99 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.ArrayTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.CompactTask;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+import ua.edu.sumdu.j2se.kush.tasks.Tasks;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static com.netcracker.eductr.tasks.tests.utils.DatesTimes.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_OccurrenceCountTest {
+
+    private static LocalDateTime time(Random random) {
+        return NOW.plusSeconds(random.nextInt(20000)).withNano(random.nextInt(2) * 500_000_000);
+    }
+
+    private static List<LocalDateTime> runs(Task task, LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime> runs = new ArrayList<>();
+        for (LocalDateTime date = task.nextTimeAfter(from); date != null && !date.isAfter(to);
+             date = task.nextTimeAfter(date)) {
+            runs.add(date);
+        }
+        return runs;
+    }
+
+    @Test
+    public void part1_testLikeNextTimeAfter() {
+        Random random = new Random(3);
+        for (int i = 0; i < 3000; i++) {
+            LocalDateTime start = time(random);
+            Task task = random.nextInt(3) == 0
+                    ? new Task("T", start)
+                    : new Task("T", start, start.plusSeconds(random.nextInt(10000)), 1 + random.nextInt(900));
+            task.setActive(random.nextInt(8) > 0);
+            if (random.nextBoolean()) {
+                task = new CompactTask(task);
+            }
+            LocalDateTime from = time(random);
+            LocalDateTime to = from.plusSeconds(random.nextInt(10000));
+            List<LocalDateTime> expected = runs(task, from, to);
+
+            Assert.assertEquals(task.toString(), expected.size(), task.countOccurrences(from, to));
+            LocalDateTime next = task.nextTimeAfter(from);
+            long first = task.firstOccurrenceIndex(from);
+            if (next == null) {
+                Assert.assertEquals(-1, first);
+            } else {
+                Assert.assertEquals(next, task.getStartTime().plusSeconds(first * task.getRepeatInterval()));
+            }
+
+            long[] seconds = new long[expected.size() + 2];
+            Assert.assertEquals(expected.size(), task.fillOccurrences(from, to, seconds, 1));
+            for (int j = 0; j < expected.size(); j++) {
+                Assert.assertEquals(expected.get(j).toEpochSecond(ZoneOffset.UTC), seconds[j + 1]);
+            }
+        }
+    }
+
+    @Test
+    public void part2_testPartialFill() {
+        Task task = new Task("A", NOW, NOW.plusHours(1), 60);
+        task.setActive(true);
+        long[] seconds = new long[10];
+        Assert.assertEquals(61, task.countOccurrences(NOW.minusSeconds(1), NOW.plusDays(1)));
+        Assert.assertEquals(4, task.fillOccurrences(NOW.minusSeconds(1), NOW.plusDays(1), seconds, 6));
+        Assert.assertEquals(NOW.toEpochSecond(ZoneOffset.UTC) + 180, seconds[9]);
+        Assert.assertEquals(0, task.fillOccurrences(NOW.minusSeconds(1), NOW.plusDays(1), seconds, 10));
+    }
+
+    @Test
+    public void part3_testTasksCount() {
+        Random random = new Random(5);
+        ArrayTaskList list = new ArrayTaskList();
+        for (int i = 0; i < 500; i++) {
+            LocalDateTime start = time(random);
+            Task task = new Task("T" + i, start, start.plusSeconds(random.nextInt(10000)), 1 + random.nextInt(900));
+            task.setActive(true);
+            list.add(task);
+        }
+        LocalDateTime from = NOW.plusSeconds(5000);
+        LocalDateTime to = NOW.plusSeconds(15000);
+        long expected = 0;
+        for (Set<Task> tasks : Tasks.calendar(list, from, to).values()) {
+            expected += tasks.size();
+        }
+        Assert.assertEquals(expected, Tasks.countOccurrences(list, from, to));
+    }
+}
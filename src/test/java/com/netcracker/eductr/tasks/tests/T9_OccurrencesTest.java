@@ -0,0 +1,88 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.ArrayTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+import ua.edu.sumdu.j2se.kush.tasks.Tasks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static com.netcracker.eductr.tasks.tests.utils.DatesTimes.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_OccurrencesTest {
+
+    private static ArrayTaskList randomTasks(Random random, int n) {
+        ArrayTaskList list = new ArrayTaskList();
+        for (int i = 0; i < n; i++) {
+            LocalDateTime start = NOW.plusMinutes(random.nextInt(600));
+            Task task = random.nextBoolean()
+                    ? new Task("T" + i, start)
+                    : new Task("T" + i, start, start.plusMinutes(random.nextInt(600)), 60 * (1 + random.nextInt(90)));
+            task.setActive(random.nextInt(5) > 0);
+            list.add(task);
+        }
+        return list;
+    }
+
+    @Test
+    public void part1_testOrderAndContent() {
+        Random random = new Random(7);
+        ArrayTaskList list = randomTasks(random, 300);
+        LocalDateTime start = NOW.plusMinutes(100);
+        LocalDateTime end = NOW.plusMinutes(700);
+
+        SortedMap<LocalDateTime, Set<Task>> expected = new TreeMap<>();
+        for (Task task : list) {
+            for (LocalDateTime date = task.nextTimeAfter(start); date != null && !date.isAfter(end);
+                 date = task.nextTimeAfter(date)) {
+                expected.computeIfAbsent(date, d -> new HashSet<>()).add(task);
+            }
+        }
+
+        SortedMap<LocalDateTime, Set<Task>> actual = new TreeMap<>();
+        LocalDateTime previous = start;
+        for (Iterator<Map.Entry<LocalDateTime, Task>> itr = Tasks.occurrences(list, start, end); itr.hasNext(); ) {
+            Map.Entry<LocalDateTime, Task> run = itr.next();
+            Assert.assertFalse(run.getKey().isBefore(previous));
+            previous = run.getKey();
+            Assert.assertTrue(actual.computeIfAbsent(run.getKey(), d -> new HashSet<>()).add(run.getValue()));
+        }
+        Assert.assertEquals(expected, actual);
+        Assert.assertEquals(expected, Tasks.calendar(list, start, end));
+    }
+
+    @Test
+    public void part2_testLongPeriod() {
+        ArrayTaskList list = new ArrayTaskList();
+        Task task = new Task("Every minute", NOW, NOW.plusYears(1), 60);
+        task.setActive(true);
+        list.add(task);
+        long count = 0;
+        for (Iterator<Map.Entry<LocalDateTime, Task>> itr = Tasks.occurrences(list, NOW.minusSeconds(1),
+                NOW.plusYears(1)); itr.hasNext(); itr.next()) {
+            count++;
+        }
+        long minutes = Duration.between(NOW, NOW.plusYears(1)).toMinutes();
+        Assert.assertEquals(minutes + 1, count);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void part3_testExhausted() {
+        Iterator<Map.Entry<LocalDateTime, Task>> itr = Tasks.occurrences(new ArrayTaskList(), NOW, NOW.plusDays(1));
+        Assert.assertFalse(itr.hasNext());
+        itr.next();
+    }
+}
@@ -0,0 +1,98 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.OffHeapTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+
+import java.util.Iterator;
+import java.util.stream.Collectors;
+
+import static com.netcracker.eductr.tasks.tests.utils.DatesTimes.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_OffHeapTaskListTest {
+
+    @Test
+    public void part1_testAddGetRemove() {
+        try (OffHeapTaskList list = new OffHeapTaskList(1)) {
+            for (int i = 0; i < 100; i++) {
+                Task task = i % 2 == 0
+                        ? new Task("Задача " + i, NOW.plusSeconds(i))
+                        : new Task("Задача " + i, NOW, FROM_NOW_100, i);
+                task.setActive(i % 3 == 0);
+                list.add(task);
+            }
+            Assert.assertEquals(100, list.size());
+            Task task = list.getTask(51);
+            Assert.assertEquals("Задача 51", task.getTitle());
+            Assert.assertEquals(NOW, task.getStartTime());
+            Assert.assertEquals(FROM_NOW_100, task.getEndTime());
+            Assert.assertEquals(51, task.getRepeatInterval());
+            Assert.assertTrue(task.isActive());
+
+            for (Iterator<Task> it = list.iterator(); it.hasNext(); ) {
+                if (it.next().getRepeatInterval() != 0) {
+                    it.remove();
+                }
+            }
+            Assert.assertEquals(50, list.size());
+            for (int i = 0; i < 100; i++) {
+                list.add(new Task("Нова задача " + i, FROM_NOW_1));
+            }
+            Assert.assertEquals("Задача 98", list.getTask(49).getTitle());
+            Assert.assertEquals("Нова задача 99", list.getTask(149).getTitle());
+            Assert.assertEquals(150, list.getStream().collect(Collectors.toList()).size());
+
+            OffHeapTaskList clone = list.clone();
+            Assert.assertEquals(list.toString(), clone.toString());
+            clone.close();
+            Assert.assertEquals(150, list.size());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void part2_testClosed() {
+        OffHeapTaskList list = new OffHeapTaskList();
+        list.add(new Task("A", NOW));
+        list.close();
+        list.getTask(0);
+    }
+
+    @Test
+    public void part3_testSegments() {
+        int size = (1 << 21) + 1000;
+        try (OffHeapTaskList list = new OffHeapTaskList()) {
+            for (int i = 0; i < size; i++) {
+                list.add(new Task("T" + i, NOW.plusSeconds(i)));
+            }
+            Assert.assertEquals(size, list.size());
+            Assert.assertEquals("T" + ((1 << 20) - 1), list.getTask((1 << 20) - 1).getTitle());
+            Assert.assertEquals("T" + (1 << 20), list.getTask(1 << 20).getTitle());
+            Assert.assertEquals("T" + (size - 1), list.getTask(size - 1).getTitle());
+
+            // Removal before the first boundary shifts records across both
+            // boundaries.
+            Assert.assertTrue(list.remove(new Task("T5", NOW.plusSeconds(5))));
+            Assert.assertEquals(size - 1, list.size());
+            Assert.assertEquals("T4", list.getTask(4).getTitle());
+            Assert.assertEquals("T6", list.getTask(5).getTitle());
+            Assert.assertEquals("T" + (1 << 20), list.getTask((1 << 20) - 1).getTitle());
+            Assert.assertEquals("T" + ((1 << 20) + 1), list.getTask(1 << 20).getTitle());
+            Assert.assertEquals("T" + ((1 << 21) + 1), list.getTask(1 << 21).getTitle());
+            Assert.assertEquals("T" + (size - 1), list.getTask(size - 2).getTitle());
+
+            try (OffHeapTaskList clone = list.clone()) {
+                Assert.assertEquals(size - 1, clone.size());
+                Assert.assertEquals("T" + (1 << 20), clone.getTask((1 << 20) - 1).getTitle());
+                Assert.assertEquals("T" + (size - 1), clone.getTask(size - 2).getTitle());
+                clone.add(new Task("Last", NOW));
+                Assert.assertEquals("Last", clone.getTask(size - 1).getTitle());
+            }
+            list.add(new Task("Last", NOW));
+            Assert.assertEquals("Last", list.getTask(size - 1).getTitle());
+        }
+    }
+}
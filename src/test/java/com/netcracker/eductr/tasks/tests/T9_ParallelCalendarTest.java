@@ -0,0 +1,49 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.AbstractTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.ListTypes;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+import ua.edu.sumdu.j2se.kush.tasks.TaskListFactory;
+import ua.edu.sumdu.j2se.kush.tasks.Tasks;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.netcracker.eductr.tasks.tests.utils.DatesTimes.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_ParallelCalendarTest {
+
+    @Test
+    public void part1_testSameAsCalendar() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (ListTypes.types type : ListTypes.types.values()) {
+                Random random = new Random(11);
+                AbstractTaskList list = TaskListFactory.createTaskList(type);
+                for (int i = 0; i < 5000; i++) {
+                    LocalDateTime start = NOW.plusMinutes(random.nextInt(1440));
+                    Task task = random.nextInt(3) == 0
+                            ? new Task("T" + i, start)
+                            : new Task("T" + i % 100, start, start.plusHours(random.nextInt(24)),
+                            60 * (1 + random.nextInt(120)));
+                    task.setActive(random.nextInt(4) > 0);
+                    list.add(task);
+                }
+                LocalDateTime start = NOW.plusHours(2);
+                LocalDateTime end = NOW.plusHours(26);
+                Assert.assertEquals(type.name(), Tasks.calendar(list, start, end),
+                        Tasks.parallelCalendar(list, start, end, pool));
+            }
+            Assert.assertTrue(Tasks.parallelCalendar(TaskListFactory.createTaskList(ListTypes.types.ARRAY),
+                    NOW, NOW.plusDays(1)).isEmpty());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
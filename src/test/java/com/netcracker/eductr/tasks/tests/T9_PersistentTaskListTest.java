@@ -0,0 +1,152 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.ArrayTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.PersistentTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static com.netcracker.eductr.tasks.tests.utils.DatesTimes.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_PersistentTaskListTest {
+
+    @Test
+    public void part1_testMatchesArrayList() {
+        Random random = new Random(11);
+        PersistentTaskList persistent = new PersistentTaskList();
+        ArrayTaskList plain = new ArrayTaskList();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Task task = new Task("T" + i, NOW.plusSeconds(i));
+            tasks.add(task);
+            persistent.add(task);
+            plain.add(task);
+        }
+        Assert.assertEquals(plain, persistent);
+        Assert.assertEquals(plain.hashCode(), persistent.hashCode());
+
+        for (int i = 0; i < 200; i++) {
+            Task task = tasks.get(random.nextInt(tasks.size()));
+            Assert.assertEquals(plain.remove(task), persistent.remove(task));
+        }
+        // Remove from the end down to an empty list.
+        while (plain.size() > 4000) {
+            Task task = plain.getTask(plain.size() - 1);
+            plain.remove(task);
+            persistent.remove(task);
+        }
+        Assert.assertEquals(plain.size(), persistent.size());
+        for (int i = 0; i < plain.size(); i++) {
+            Assert.assertSame(plain.getTask(i), persistent.getTask(i));
+        }
+        Assert.assertEquals(plain, persistent);
+    }
+
+    @Test
+    public void part2_testCloneIsIndependent() {
+        PersistentTaskList list = new PersistentTaskList();
+        for (int i = 0; i < 1100; i++) {
+            list.add(new Task("T" + i, NOW.plusSeconds(i)));
+        }
+        PersistentTaskList snapshot = list.clone();
+        list.add(new Task("New", NOW));
+        for (Iterator<Task> it = list.iterator(); it.hasNext(); ) {
+            if (it.next().getTitle().endsWith("0")) {
+                it.remove();
+            }
+        }
+        Assert.assertEquals(1100, snapshot.size());
+        Assert.assertEquals(991, list.size());
+        for (int i = 0; i < 1100; i++) {
+            Assert.assertEquals("T" + i, snapshot.getTask(i).getTitle());
+        }
+        Assert.assertEquals("New", list.getTask(990).getTitle());
+        Assert.assertEquals(1100, snapshot.getStream().count());
+
+        while (snapshot.size() > 0) {
+            snapshot.remove(snapshot.getTask(snapshot.size() - 1));
+        }
+        Assert.assertEquals(991, list.size());
+        Assert.assertEquals("T1", list.getTask(0).getTitle());
+    }
+
+    private static void assertSameTasks(List<Task> expected, PersistentTaskList actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        int i = 0;
+        for (Task task : actual) {
+            Assert.assertSame(expected.get(i), task);
+            Assert.assertSame(expected.get(i), actual.getTask(i));
+            i++;
+        }
+        Assert.assertEquals(expected.size(), i);
+    }
+
+    @Test
+    public void part3_testRandomRemovalsAndClones() {
+        Random random = new Random(7);
+        PersistentTaskList list = new PersistentTaskList();
+        List<Task> expected = new ArrayList<>();
+        List<PersistentTaskList> snapshots = new ArrayList<>();
+        List<List<Task>> snapshotTasks = new ArrayList<>();
+        for (int step = 0; step < 40000; step++) {
+            if (random.nextInt(20) < 13 || expected.isEmpty()) {
+                Task task = new Task("T" + step, NOW.plusSeconds(step));
+                list.add(task);
+                expected.add(task);
+            } else {
+                Task task = expected.remove(random.nextInt(expected.size()));
+                Assert.assertTrue(list.remove(task));
+            }
+            if (step % 4000 == 0) {
+                snapshots.add(list.clone());
+                snapshotTasks.add(new ArrayList<>(expected));
+            }
+        }
+        assertSameTasks(expected, list);
+        while (!expected.isEmpty()) {
+            Task task = expected.remove(random.nextInt(expected.size()));
+            Assert.assertTrue(list.remove(task));
+            if (expected.size() % 997 == 0) {
+                assertSameTasks(expected, list);
+            }
+        }
+        Assert.assertEquals(0, list.size());
+        Assert.assertFalse(list.iterator().hasNext());
+        for (int i = 0; i < snapshots.size(); i++) {
+            assertSameTasks(snapshotTasks.get(i), snapshots.get(i));
+        }
+    }
+
+    @Test
+    public void part4_testRemoveIf() {
+        PersistentTaskList list = new PersistentTaskList();
+        List<Task> expected = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            Task task = new Task("T" + i, NOW.plusSeconds(i));
+            list.add(task);
+            expected.add(task);
+        }
+        PersistentTaskList snapshot = list.clone();
+        Assert.assertFalse(list.removeIf(task -> false));
+        Assert.assertTrue(list.removeIf(task -> task.getTitle().endsWith("3")));
+        expected.removeIf(task -> task.getTitle().endsWith("3"));
+        assertSameTasks(expected, list);
+        Assert.assertEquals(3000, snapshot.size());
+
+        List<Task> keep = new ArrayList<>(expected.subList(100, 200));
+        Assert.assertTrue(list.retainAll(keep));
+        assertSameTasks(keep, list);
+        Assert.assertTrue(list.removeAll(keep));
+        Assert.assertEquals(0, list.size());
+        list.add(keep.get(0));
+        Assert.assertSame(keep.get(0), list.getTask(0));
+    }
+}
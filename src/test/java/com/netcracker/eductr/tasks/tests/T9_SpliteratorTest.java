@@ -0,0 +1,75 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.AbstractTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.ArrayTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.LinkedTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import static com.netcracker.eductr.tasks.tests.utils.DatesTimes.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_SpliteratorTest {
+
+    private static AbstractTaskList[] lists(int n) {
+        AbstractTaskList[] lists = {new ArrayTaskList(), new LinkedTaskList()};
+        for (AbstractTaskList list : lists) {
+            for (int i = 0; i < n; i++) {
+                list.add(new Task("T" + i, NOW.plusSeconds(i)));
+            }
+        }
+        return lists;
+    }
+
+    @Test
+    public void part1_testSplit() {
+        for (AbstractTaskList list : lists(1001)) {
+            Spliterator<Task> suffix = list.spliterator();
+            Assert.assertTrue(suffix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+            Assert.assertEquals(1001, suffix.getExactSizeIfKnown());
+            Spliterator<Task> prefix = suffix.trySplit();
+            Assert.assertEquals(500, prefix.getExactSizeIfKnown());
+            Assert.assertEquals(501, suffix.getExactSizeIfKnown());
+
+            List<String> titles = new ArrayList<>();
+            prefix.forEachRemaining(t -> titles.add(t.getTitle()));
+            suffix.tryAdvance(t -> titles.add(t.getTitle()));
+            suffix.forEachRemaining(t -> titles.add(t.getTitle()));
+            Assert.assertEquals(1001, titles.size());
+            for (int i = 0; i < titles.size(); i++) {
+                Assert.assertEquals("T" + i, titles.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void part2_testParallelStream() {
+        for (AbstractTaskList list : lists(10000)) {
+            List<String> sequential = list.getStream().map(Task::getTitle).collect(Collectors.toList());
+            List<String> parallel = list.getStream().parallel().map(Task::getTitle).collect(Collectors.toList());
+            Assert.assertEquals(10000, sequential.size());
+            Assert.assertEquals(sequential, parallel);
+        }
+    }
+
+    @Test
+    public void part3_testEmptyAndRemoved() {
+        ArrayTaskList list = new ArrayTaskList(100);
+        Assert.assertEquals(0, list.getStream().count());
+        list.setIndexed(true);
+        Task a = new Task("A", NOW);
+        list.add(a);
+        list.add(new Task("B", NOW));
+        list.remove(a);
+        Assert.assertEquals(1, list.getStream().count());
+        Assert.assertEquals(0, new LinkedTaskList().getStream().count());
+    }
+}
@@ -0,0 +1,76 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.AbstractTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.ListTypes;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+import ua.edu.sumdu.j2se.kush.tasks.TaskInterner;
+import ua.edu.sumdu.j2se.kush.tasks.TaskListFactory;
+
+import java.time.LocalDateTime;
+
+import static com.netcracker.eductr.tasks.tests.utils.DatesTimes.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_TaskInternerTest {
+
+    @Test
+    public void part1_testIntern() {
+        TaskInterner interner = new TaskInterner();
+        String title = interner.intern(new String("A"));
+        Assert.assertSame(title, interner.intern(new String("A")));
+        LocalDateTime time = interner.intern(NOW.plusSeconds(1));
+        Assert.assertSame(time, interner.intern(NOW.plusSeconds(1)));
+        Assert.assertNull(interner.intern((String) null));
+
+        Task repeated = new Task(new String("A"), NOW.plusSeconds(1), NOW.plusSeconds(10), 3);
+        Task copy = repeated.clone();
+        Assert.assertSame(repeated, interner.intern(repeated));
+        Assert.assertEquals(copy, repeated);
+        Assert.assertSame(title, repeated.getTitle());
+        Assert.assertSame(time, repeated.getStartTime());
+
+        Task single = new Task("B", NOW.plusSeconds(1));
+        interner.intern(single);
+        Assert.assertSame(time, single.getTime());
+        Assert.assertFalse(single.isRepeated());
+    }
+
+    @Test
+    public void part2_testBounded() {
+        TaskInterner interner = new TaskInterner(4);
+        for (int i = 0; i < 100; i++) {
+            interner.intern("T" + i);
+        }
+        Assert.assertTrue(interner.size() <= 4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void part3_testWrongSize() {
+        new TaskInterner(0);
+    }
+
+    @Test
+    public void part4_testLists() {
+        TaskInterner interner = new TaskInterner();
+        for (ListTypes.types type : ListTypes.types.values()) {
+            AbstractTaskList list = TaskListFactory.createTaskList(type, interner);
+            Assert.assertSame(interner, list.getInterner());
+            list.add(new Task(new String("Same"), NOW.plusSeconds(5)));
+            list.add(new Task(new String("Same"), NOW.plusSeconds(5)));
+            Assert.assertEquals(type.name(), list.getTask(0), list.getTask(1));
+        }
+        for (ListTypes.types type : new ListTypes.types[]{ListTypes.types.ARRAY, ListTypes.types.LINKED,
+                ListTypes.types.INDEXED, ListTypes.types.UNROLLED, ListTypes.types.CONCURRENT,
+                ListTypes.types.PERSISTENT}) {
+            AbstractTaskList list = TaskListFactory.createTaskList(type, interner);
+            list.add(new Task(new String("Same"), NOW.plusSeconds(5)));
+            list.add(new Task(new String("Same"), NOW.plusSeconds(5)));
+            Assert.assertSame(type.name(), list.getTask(0).getTitle(), list.getTask(1).getTitle());
+            Assert.assertSame(type.name(), list.getTask(0).getTime(), list.getTask(1).getTime());
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.ArrayTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+import ua.edu.sumdu.j2se.kush.tasks.TaskScheduler;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_TaskSchedulerTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private static TaskScheduler scheduler(long tickMillis) {
+        return new TaskScheduler(Runnable::run, Clock.fixed(T0.toInstant(ZoneOffset.UTC), ZoneOffset.UTC),
+                tickMillis);
+    }
+
+    private static Task active(Task task) {
+        task.setActive(true);
+        return task;
+    }
+
+    @Test
+    public void part1_testRecurring() {
+        TaskScheduler scheduler = scheduler(1);
+        List<LocalDateTime> fired = new ArrayList<>();
+        scheduler.addListener((task, time) -> fired.add(time));
+        Task task = active(new Task("A", T0.plusMinutes(1), T0.plusMinutes(5), 60));
+        Assert.assertTrue(scheduler.schedule(task));
+        Assert.assertTrue(scheduler.isScheduled(task));
+
+        scheduler.advanceTo(T0.plusMinutes(3));
+        Assert.assertEquals(3, fired.size());
+        Assert.assertEquals(T0.plusMinutes(3), scheduler.now());
+        scheduler.advanceTo(T0.plusHours(1));
+        Assert.assertEquals(5, fired.size());
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(T0.plusMinutes(i + 1), fired.get(i));
+        }
+        Assert.assertFalse(scheduler.isScheduled(task));
+        Assert.assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    public void part2_testCancelAndInactive() {
+        TaskScheduler scheduler = scheduler(10);
+        List<Task> fired = new ArrayList<>();
+        scheduler.addListener((task, time) -> fired.add(task));
+        ArrayTaskList list = new ArrayTaskList();
+        Task a = active(new Task("A", T0.plusSeconds(5)));
+        Task b = active(new Task("B", T0.plusSeconds(6)));
+        Task c = new Task("C", T0.plusSeconds(7));
+        Task d = active(new Task("D", T0.minusSeconds(1)));
+        list.add(a);
+        list.add(b);
+        list.add(c);
+        list.add(d);
+        Assert.assertEquals(2, scheduler.scheduleAll(list));
+        Assert.assertTrue(scheduler.cancel(a));
+        Assert.assertFalse(scheduler.cancel(a));
+        scheduler.advanceTo(T0.plusSeconds(5));
+        Assert.assertTrue(fired.isEmpty());
+        b.setActive(false);
+        scheduler.advanceTo(T0.plusSeconds(10));
+        Assert.assertTrue(fired.isEmpty());
+        Assert.assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    public void part3_testManyLevels() {
+        TaskScheduler scheduler = scheduler(1000);
+        Random random = new Random(9);
+        List<LocalDateTime> fired = new ArrayList<>();
+        scheduler.addListener((task, time) -> fired.add(time));
+        int n = 20000;
+        List<LocalDateTime> times = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            LocalDateTime time = T0.plusSeconds(1 + random.nextInt(400 * 24 * 3600)).withNano(random.nextInt(1000));
+            times.add(time);
+            scheduler.schedule(active(new Task("T" + i, time)));
+        }
+        Collections.sort(times);
+        Assert.assertEquals(n, scheduler.size());
+        LocalDateTime now = T0;
+        while (scheduler.size() > 0) {
+            now = now.plusHours(1 + random.nextInt(72));
+            scheduler.advanceTo(now);
+            int due = 0;
+            while (due < n && !times.get(due).isAfter(now)) {
+                due++;
+            }
+            Assert.assertEquals(due, fired.size());
+        }
+        for (int i = 0; i < n; i++) {
+            // The runs of one tick may come in any order.
+            Assert.assertEquals(times.get(i).withNano(0), fired.get(i).withNano(0));
+        }
+    }
+
+    @Test
+    public void part4_testThread() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(3);
+        try (TaskScheduler scheduler = new TaskScheduler(Runnable::run)) {
+            scheduler.addListener((task, time) -> latch.countDown());
+            LocalDateTime now = LocalDateTime.now();
+            scheduler.schedule(active(new Task("A", now.plusNanos(50_000_000), now.plusSeconds(10), 1)));
+            scheduler.start();
+            Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void part5_testFailingListener() {
+        Thread current = Thread.currentThread();
+        Thread.UncaughtExceptionHandler handler = current.getUncaughtExceptionHandler();
+        List<Throwable> reported = new ArrayList<>();
+        current.setUncaughtExceptionHandler((t, e) -> reported.add(e));
+        try {
+            TaskScheduler scheduler = scheduler(1);
+            List<String> fired = new ArrayList<>();
+            scheduler.addListener((task, time) -> {
+                throw new IllegalStateException("A failed listener");
+            });
+            scheduler.addListener((task, time) -> fired.add(task.getTitle() + " " + time));
+            scheduler.schedule(active(new Task("A", T0.plusSeconds(1), T0.plusSeconds(3), 1)));
+            scheduler.schedule(active(new Task("B", T0.plusSeconds(1))));
+
+            scheduler.advanceTo(T0.plusSeconds(1));
+            Assert.assertEquals(2, fired.size());
+            Assert.assertEquals(2, reported.size());
+            scheduler.advanceTo(T0.plusSeconds(5));
+            Assert.assertEquals(4, fired.size());
+            Assert.assertEquals(4, reported.size());
+            Assert.assertEquals(0, scheduler.size());
+
+            // An executor that rejects the runs does not stop the others.
+            int[] calls = new int[1];
+            TaskScheduler rejecting = new TaskScheduler(command -> {
+                if (calls[0]++ == 0) {
+                    throw new RejectedExecutionException();
+                }
+                command.run();
+            }, Clock.fixed(T0.toInstant(ZoneOffset.UTC), ZoneOffset.UTC), 1);
+            List<String> delivered = new ArrayList<>();
+            rejecting.addListener((task, time) -> delivered.add(task.getTitle()));
+            rejecting.schedule(active(new Task("C", T0.plusSeconds(1))));
+            rejecting.schedule(active(new Task("D", T0.plusSeconds(1))));
+            rejecting.advanceTo(T0.plusSeconds(2));
+            Assert.assertEquals(1, delivered.size());
+            Assert.assertEquals(5, reported.size());
+        } finally {
+            current.setUncaughtExceptionHandler(handler);
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void part6_testLongJump() {
+        // A year of 1 ms ticks is 3.2e10 ticks; only the occupied slots are
+        // visited.
+        TaskScheduler scheduler = scheduler(1);
+        List<LocalDateTime> fired = new ArrayList<>();
+        scheduler.addListener((task, time) -> fired.add(time));
+        scheduler.schedule(active(new Task("Daily", T0.plusDays(1), T0.plusDays(365), 24 * 3600)));
+        scheduler.schedule(active(new Task("Once", T0.plusDays(200).plusNanos(5_000_000))));
+
+        scheduler.advanceTo(T0.plusDays(365));
+        Assert.assertEquals(365 + 1, fired.size());
+        Assert.assertEquals(T0.plusDays(365), scheduler.now());
+        Assert.assertTrue(fired.contains(T0.plusDays(200).plusNanos(5_000_000)));
+        Assert.assertEquals(T0.plusDays(365), fired.get(fired.size() - 1));
+        Assert.assertEquals(0, scheduler.size());
+    }
+
+    @Test(timeout = 5000)
+    public void part7_testBeyondWheel() {
+        // The wheel covers 2^42 ticks, about 139 years of 1 ms ticks.
+        TaskScheduler scheduler = scheduler(1);
+        List<String> fired = new ArrayList<>();
+        scheduler.addListener((task, time) -> fired.add(task.getTitle()));
+        scheduler.schedule(active(new Task("Far", T0.plusYears(300))));
+        scheduler.schedule(active(new Task("Farther", T0.plusYears(400))));
+
+        scheduler.advanceTo(T0.plusYears(150));
+        Assert.assertTrue(fired.isEmpty());
+        Assert.assertEquals(2, scheduler.size());
+        scheduler.advanceTo(T0.plusYears(301));
+        Assert.assertEquals(Collections.singletonList("Far"), fired);
+        scheduler.advanceTo(T0.plusYears(401));
+        Assert.assertEquals(2, fired.size());
+        Assert.assertEquals(0, scheduler.size());
+    }
+}
@@ -0,0 +1,102 @@
+package com.netcracker.eductr.tasks.tests;
+
+import org.junit.Assert;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+import ua.edu.sumdu.j2se.kush.tasks.AbstractTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.LinkedTaskList;
+import ua.edu.sumdu.j2se.kush.tasks.ListTypes;
+import ua.edu.sumdu.j2se.kush.tasks.Task;
+import ua.edu.sumdu.j2se.kush.tasks.TaskListFactory;
+import ua.edu.sumdu.j2se.kush.tasks.UnrolledTaskList;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static com.netcracker.eductr.tasks.tests.utils.DatesTimes.*;
+
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class T9_UnrolledTaskListTest {
+
+    private static List<String> titles(AbstractTaskList tasks) {
+        List<String> titles = new ArrayList<>();
+        for (Task task : tasks) {
+            titles.add(task.getTitle());
+        }
+        return titles;
+    }
+
+    @Test
+    public void part1_testGetTask() {
+        AbstractTaskList list = TaskListFactory.createTaskList(ListTypes.types.UNROLLED);
+        Assert.assertTrue("Factory must create UnrolledTaskList", list instanceof UnrolledTaskList);
+        for (int i = 0; i < 200; i++) {
+            list.add(new Task("T" + i, NOW.plusSeconds(i)));
+        }
+        Assert.assertEquals(200, list.size());
+        for (int i = 0; i < 200; i++) {
+            Assert.assertEquals("T" + i, list.getTask(i).getTitle());
+        }
+        try {
+            list.getTask(200);
+            Assert.fail("getTask(size) must throw IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            // OK
+        }
+    }
+
+    @Test
+    public void part2_testRemoveMatchesLinkedList() {
+        UnrolledTaskList unrolled = new UnrolledTaskList();
+        LinkedTaskList linked = new LinkedTaskList();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Task task = new Task("T" + i, NOW.plusSeconds(i));
+            tasks.add(task);
+            unrolled.add(task);
+            linked.add(task);
+        }
+        for (int i = 0; i < 300; i += 3) {
+            Assert.assertTrue(unrolled.remove(tasks.get(i)));
+            linked.remove(tasks.get(i));
+        }
+        Assert.assertFalse(unrolled.remove(tasks.get(0)));
+        Assert.assertEquals(titles(linked), titles(unrolled));
+
+        for (Iterator<Task> it = unrolled.iterator(), ref = linked.iterator(); it.hasNext(); ) {
+            Task task = it.next();
+            ref.next();
+            if (task.getTitle().hashCode() % 2 == 0) {
+                it.remove();
+                ref.remove();
+            }
+        }
+        Assert.assertEquals(titles(linked), titles(unrolled));
+        for (int i = 0; i < unrolled.size(); i++) {
+            Assert.assertEquals(linked.getTask(i), unrolled.getTask(i));
+        }
+    }
+
+    @Test
+    public void part3_testCloneEquals() {
+        UnrolledTaskList list = new UnrolledTaskList();
+        for (int i = 0; i < 70; i++) {
+            list.add(new Task("T" + i, NOW.plusSeconds(i)));
+        }
+        UnrolledTaskList clone = list.clone();
+        Assert.assertEquals(list, clone);
+        Assert.assertEquals(list.hashCode(), clone.hashCode());
+        Assert.assertNotSame(list.getTask(5), clone.getTask(5));
+        Assert.assertEquals(70, list.getStream().count());
+
+        Iterator<Task> it = list.iterator();
+        try {
+            it.remove();
+            Assert.fail("Iterator.remove without next must throw IllegalStateException");
+        } catch (IllegalStateException e) {
+            // OK
+        }
+    }
+}
@@ -5,7 +5,7 @@ import java.util.List;
 
 public class ListTypes {
     private static Class<?> targetClass;
-    private static List<String> set = Arrays.asList("ARRAY", "LINKED");
+    private static List<String> set = Arrays.asList("ARRAY", "LINKED", "INDEXED", "COLUMNAR", "OFF_HEAP", "UNROLLED", "CONCURRENT", "PERSISTENT");
 
     public static void setTargetClass(Class<?> targetClass) {
         ListTypes.targetClass = targetClass;